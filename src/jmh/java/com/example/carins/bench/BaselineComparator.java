@@ -0,0 +1,101 @@
+package com.example.carins.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares a JMH JSON result with a baseline result and fails when a benchmark regressed by more than the
+ * threshold: lower throughput (or higher time per operation), or more bytes allocated per operation.
+ *
+ * Arguments: {@code <result.json> <baseline.json> <threshold>}, e.g. {@code 0.10} for 10%. Without a
+ * baseline the comparison is skipped.
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    /** Allocation differences below this many bytes per operation are noise, e.g. from escape analysis. */
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private record Score(String mode, double score, String unit, Double allocatedBytes) {}
+
+    private BaselineComparator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args[1] == null || args[1].isBlank()) {
+            System.out.println("No JMH baseline given, skipping the comparison");
+            return;
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, Score> current = read(new File(args[0]));
+        Map<String, Score> baseline = read(new File(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-70s %14s %14s %8s %12s %12s%n", "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op now");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %8s%n", entry.getKey(), "-", now.score(), "new");
+                continue;
+            }
+            // throughput regresses downwards, every other mode measures time per operation
+            double change = (now.score() - before.score()) / before.score();
+            boolean slower = "thrpt".equals(now.mode()) ? change < -threshold : change > threshold;
+            boolean allocatesMore = now.allocatedBytes() != null && before.allocatedBytes() != null
+                    && now.allocatedBytes() - before.allocatedBytes() > ALLOCATION_SLACK_BYTES
+                    && now.allocatedBytes() > before.allocatedBytes() * (1 + threshold);
+
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12s %12s%s%n", entry.getKey(), before.score(), now.score(),
+                    change * 100, bytes(before), bytes(now), slower || allocatesMore ? "  REGRESSION" : "");
+            if (slower) {
+                regressions.add(entry.getKey() + ": " + String.format("%+.1f%%", change * 100) + " " + now.unit());
+            }
+            if (allocatesMore) {
+                regressions.add(entry.getKey() + ": allocates " + bytes(now) + " B/op, was " + bytes(before));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Benchmarks regressed beyond " + Math.round(threshold * 100) + "%:\n  "
+                    + String.join("\n  ", regressions));
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringJoiner key = new StringJoiner(",", run.path("benchmark").asText() + ":", "").setEmptyValue(run.path("benchmark").asText());
+            run.path("params").fields().forEachRemaining(param -> key.add(param.getKey() + "=" + param.getValue().asText()));
+            JsonNode primary = run.path("primaryMetric");
+            JsonNode allocation = secondary(run.path("secondaryMetrics"));
+            scores.put(key.toString(), new Score(run.path("mode").asText(), primary.path("score").asDouble(),
+                    primary.path("scoreUnit").asText(), allocation != null ? allocation.path("score").asDouble() : null));
+        }
+        return scores;
+    }
+
+    /** Older JMH versions prefix secondary metric names with a middle dot. */
+    private static JsonNode secondary(JsonNode metrics) {
+        Iterator<Map.Entry<String, JsonNode>> fields = metrics.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> metric = fields.next();
+            if (metric.getKey().endsWith(ALLOCATION)) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String bytes(Score score) {
+        return score.allocatedBytes() != null ? String.format("%.0f", score.allocatedBytes()) : "-";
+    }
+}
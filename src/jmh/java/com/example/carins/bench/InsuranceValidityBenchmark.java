@@ -0,0 +1,101 @@
+package com.example.carins.bench;
+
+import com.example.carins.CarInsuranceApplication;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.service.CarService;
+import com.example.carins.service.PolicyCoverageIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CarService#isInsuranceValid} against an embedded H2 seeded with {@code cars} cars of two policies
+ * each, next to the {@code existsActiveOnDate} query it replaced as a reference point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InsuranceValidityBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"10000"})
+    public int cars;
+
+    private ConfigurableApplicationContext context;
+    private CarService carService;
+    private InsurancePolicyRepository policyRepository;
+
+    private long[] carIds;
+    private LocalDate[] dates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CarInsuranceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        carService = context.getBean(CarService.class);
+        policyRepository = context.getBean(InsurancePolicyRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        // the seed bypasses JPA, so index it up front and measure the steady state rather than first lookups
+        context.getBean(PolicyCoverageIndex.class).rebuild();
+
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate today = LocalDate.now();
+        carIds = new long[LOOKUPS];
+        dates = new LocalDate[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            carIds[i] = 1000 + random.nextInt(cars);
+            dates[i] = today.minusDays(random.nextInt(730)).plusDays(random.nextInt(730));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isInsuranceValid() {
+        int i = next++ & (LOOKUPS - 1);
+        return carService.isInsuranceValid(carIds[i], dates[i]);
+    }
+
+    @Benchmark
+    public boolean existsActiveOnDate() {
+        int i = next++ & (LOOKUPS - 1);
+        return policyRepository.existsActiveOnDate(carIds[i], dates[i]);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO owner (id, name, email) VALUES (1000, 'Bench Owner', 'bench@example.com')");
+        List<Object[]> carRows = new ArrayList<>(cars);
+        List<Object[]> policyRows = new ArrayList<>(cars * 2);
+        LocalDate start = LocalDate.now().minusYears(1);
+        long policyId = 1000;
+        for (int i = 0; i < cars; i++) {
+            long carId = 1000 + i;
+            carRows.add(new Object[] { carId, "BENCH" + carId, "Dacia", "Logan", 2020, 1000 });
+            LocalDate firstStart = start.plusDays(i % 90);
+            policyRows.add(new Object[] { policyId++, carId, "Allianz", Date.valueOf(firstStart), Date.valueOf(firstStart.plusMonths(6)) });
+            // second policy leaves a one-month gap after the first
+            policyRows.add(new Object[] { policyId++, carId, "Groupama", Date.valueOf(firstStart.plusMonths(7)), Date.valueOf(firstStart.plusMonths(19)) });
+        }
+        jdbc.batchUpdate("INSERT INTO car (id, vin, make, model, year_of_manufacture, owner_id) VALUES (?, ?, ?, ?, ?, ?)", carRows);
+        jdbc.batchUpdate("INSERT INTO insurancepolicy (id, car_id, provider, start_date, end_date) VALUES (?, ?, ?, ?, ?)", policyRows);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.carins.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Closed-loop load driver for a running application: every worker sends its next request as soon as the
+ * previous one is answered, replaying a weighted mix of validity checks, claim posts and history reads.
+ * Reports throughput, errors and p50/p99/p999 latency per operation, measured after a warmup.
+ *
+ * Arguments are {@code key=value} pairs, all optional:
+ * <ul>
+ *   <li>{@code url} base URL, default {@code http://localhost:8080}</li>
+ *   <li>{@code cars} car ids are drawn from {@code 1..cars}, default 2 (the seed data)</li>
+ *   <li>{@code concurrency} number of workers, default 16</li>
+ *   <li>{@code warmup}, {@code duration} in seconds, default 10 and 60</li>
+ *   <li>{@code mix} operation weights, default {@code validity=80,claim=10,history=10}</li>
+ * </ul>
+ */
+public final class LoadDriver {
+
+    enum Operation { VALIDITY, CLAIM, HISTORY }
+
+    /** Latencies of one worker in nanoseconds, grown as needed. */
+    private static final class Recorder {
+        long[] latencies = new long[1 << 16];
+        int size;
+        long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size << 1);
+            }
+            latencies[size++] = nanos;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final int cars;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Operation[] mix;
+
+    private LoadDriver(Map<String, String> args) {
+        this.baseUrl = args.getOrDefault("url", "http://localhost:8080");
+        this.cars = Integer.parseInt(args.getOrDefault("cars", "2"));
+        this.concurrency = Integer.parseInt(args.getOrDefault("concurrency", "16"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(args.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(args.getOrDefault("duration", "60")));
+        this.mix = parseMix(args.getOrDefault("mix", "validity=80,claim=10,history=10"));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Driving %s with %d workers over %d cars: %ds warmup, %ds measured%n",
+                baseUrl, concurrency, cars, warmup.toSeconds(), duration.toSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Map<Operation, Recorder>> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            Map<Operation, Recorder> own = new LinkedHashMap<>();
+            for (Operation operation : Operation.values()) {
+                own.put(operation, new Recorder());
+            }
+            recorders.add(own);
+            SplittableRandom random = new SplittableRandom(w);
+            Thread worker = new Thread(() -> {
+                try {
+                    work(random, own, measureFrom, end);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        report(recorders);
+    }
+
+    private void work(SplittableRandom random, Map<Operation, Recorder> recorders, long measureFrom, long end) {
+        LocalDate today = LocalDate.now();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            long carId = 1 + random.nextInt(cars);
+            HttpRequest request = switch (operation) {
+                case VALIDITY -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/cars/" + carId
+                        + "/insurance-valid?date=" + today.plusDays(random.nextInt(-700, 700)))).GET().build();
+                case CLAIM -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/cars/" + carId + "/claims"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"claimDate\":\"" + today
+                                + "\",\"description\":\"Load test claim\",\"amount\":" + (100 + random.nextInt(5000)) + "}"))
+                        .build();
+                case HISTORY -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/cars/" + carId + "/history")).GET().build();
+            };
+
+            boolean failed;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (Exception e) {
+                failed = true;
+            }
+            long latency = System.nanoTime() - now;
+
+            if (now >= measureFrom) {
+                Recorder recorder = recorders.get(operation);
+                recorder.record(latency);
+                if (failed) {
+                    recorder.errors++;
+                }
+            }
+        }
+    }
+
+    private void report(List<Map<Operation, Recorder>> recorders) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        List<long[]> all = new ArrayList<>();
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            long[] merged = new long[0];
+            long errors = 0;
+            for (Map<Operation, Recorder> worker : recorders) {
+                Recorder recorder = worker.get(operation);
+                merged = concat(merged, recorder.latencies, recorder.size);
+                errors += recorder.errors;
+            }
+            if (merged.length > 0) {
+                print(operation.name().toLowerCase(), merged, errors, seconds);
+                all.add(merged);
+                allErrors += errors;
+            }
+        }
+        long[] total = new long[0];
+        for (long[] latencies : all) {
+            total = concat(total, latencies, latencies.length);
+        }
+        print("total", total, allErrors, seconds);
+    }
+
+    private static void print(String name, long[] latencies, long errors, double seconds) {
+        Arrays.sort(latencies);
+        System.out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, latencies.length, errors,
+                latencies.length / seconds, millis(latencies, 0.50), millis(latencies, 0.99), millis(latencies, 0.999),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /** Nearest-rank percentile of sorted latencies. */
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(rank, 0)] / 1e6;
+    }
+
+    private static long[] concat(long[] a, long[] b, int bLength) {
+        long[] result = Arrays.copyOf(a, a.length + bLength);
+        System.arraycopy(b, 0, result, a.length, bLength);
+        return result;
+    }
+
+    private static Operation[] parseMix(String spec) {
+        List<Operation> weighted = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            Operation operation = Operation.valueOf(kv[0].trim().toUpperCase());
+            int weight = Integer.parseInt(kv[1].trim());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Empty operation mix: " + spec);
+        }
+        return weighted.toArray(Operation[]::new);
+    }
+}
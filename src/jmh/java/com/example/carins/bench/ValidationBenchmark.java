@@ -0,0 +1,44 @@
+package com.example.carins.bench;
+
+import com.example.carins.service.ValidatedDate;
+import com.example.carins.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date parsing and range check done for every insurance validity request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationBenchmark {
+
+    private final ValidationService validationService = new ValidationService(Clock.systemDefaultZone());
+    private String[] dates;
+    private String[] invalid;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        dates = new String[1024];
+        invalid = new String[1024];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = today.minusDays(365).plusDays(i % 730).toString();
+            invalid[i] = i % 2 == 0 ? dates[i].replace('-', '/') : today.minusDays(365).getYear() + "-02-30";
+        }
+    }
+
+    @Benchmark
+    public ValidatedDate validateDate() {
+        return validationService.validateDate(dates[next++ & (dates.length - 1)]);
+    }
+
+    @Benchmark
+    public ValidatedDate validateInvalidDate() {
+        return validationService.validateDate(invalid[next++ & (invalid.length - 1)]);
+    }
+}
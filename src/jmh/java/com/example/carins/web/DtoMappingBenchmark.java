@@ -0,0 +1,84 @@
+package com.example.carins.web;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.History;
+import com.example.carins.model.Owner;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.HistoryDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping in {@link CarDtoMapper} and JSON serialization of car listings, per {@code size}
+ * rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DtoMappingBenchmark {
+
+    @Param({"100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Car> cars;
+    private List<Claim> claims;
+    private List<History> history;
+    private List<CarDto> carDtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+        Owner owner = new Owner("Ana Pop", "ana.pop@example.com");
+        ReflectionTestUtils.setField(owner, "id", 1L);
+        cars = new ArrayList<>(size);
+        claims = new ArrayList<>(size);
+        history = new ArrayList<>(size);
+        LocalDate date = LocalDate.parse("2025-01-01");
+        for (int i = 0; i < size; i++) {
+            Car car = new Car("VIN" + (100000 + i), "Dacia", "Logan", 2018, owner);
+            ReflectionTestUtils.setField(car, "id", (long) i);
+            cars.add(car);
+
+            Claim claim = new Claim(car, date.plusDays(i), "Minor collision damage", 1500);
+            ReflectionTestUtils.setField(claim, "id", (long) i);
+            claims.add(claim);
+
+            History event = new History(car, "Minor collision damage", date.plusDays(i));
+            ReflectionTestUtils.setField(event, "id", (long) i);
+            history.add(event);
+        }
+        carDtos = mapCars();
+    }
+
+    @Benchmark
+    public List<CarDto> mapCars() {
+        return cars.stream().map(CarDtoMapper::toDto).toList();
+    }
+
+    @Benchmark
+    public List<ClaimDto> mapClaims() {
+        return claims.stream().map(CarDtoMapper::toClaimDto).toList();
+    }
+
+    @Benchmark
+    public List<HistoryDto> mapHistory() {
+        return history.stream().map(CarDtoMapper::toHistoryDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeCars() throws Exception {
+        return objectMapper.writeValueAsBytes(carDtos);
+    }
+}
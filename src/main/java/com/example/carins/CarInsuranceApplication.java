@@ -2,12 +2,15 @@ package com.example.carins;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive gateway, which builds its own pool; an auto-configured
+// ConnectionFactory would make the JDBC DataSource back off
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableScheduling
 public class CarInsuranceApplication {
     public static void main(String[] args) {
         SpringApplication.run(CarInsuranceApplication.class, args);
     }
-}
\ No newline at end of file
+}
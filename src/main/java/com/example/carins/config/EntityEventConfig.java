@@ -0,0 +1,28 @@
+package com.example.carins.config;
+
+import com.example.carins.service.CarCacheInvalidator;
+import com.example.carins.service.CarVersionListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the services that follow writes to cars and owners as Hibernate event listeners, so that the
+ * entities in {@code model} need no {@code @EntityListeners} pointing into {@code service}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class EntityEventConfig {
+
+    public EntityEventConfig(EntityManagerFactory entityManagerFactory, CarCacheInvalidator carCacheInvalidator,
+                             CarVersionListener carVersionListener) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, carCacheInvalidator);
+        registry.appendListeners(EventType.POST_DELETE, carCacheInvalidator);
+        registry.appendListeners(EventType.POST_INSERT, carVersionListener);
+        registry.appendListeners(EventType.POST_UPDATE, carVersionListener);
+        registry.appendListeners(EventType.POST_DELETE, carVersionListener);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.carins.config;
+
+import com.example.carins.service.ReplicaReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends the read-only transactions that opt in through {@link ReplicaReads} to read replicas when
+ * {@code carins.datasource.replicas.urls} is set; everything else keeps using the primary configured under
+ * {@code spring.datasource}.
+ *
+ * The application's DataSource becomes a {@link ReplicaRoutingDataSource} over the primary pool and one
+ * pool per replica, behind a {@link LazyConnectionDataSourceProxy}: Hibernate takes a connection when the
+ * transaction begins, but the proxy only fetches the physical one at the first statement, after the
+ * transaction has opted in. Hibernate releases its connection when the transaction ends, so that with open
+ * session in view a request that reads and then writes gets a separately routed connection for each
+ * transaction.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "carins.datasource.replicas", name = "urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, ReplicaReads replicaReads, MeterRegistry meterRegistry,
+            @Value("${carins.datasource.replicas.urls}") List<String> urls,
+            @Value("${carins.datasource.replicas.username:${spring.datasource.username:sa}}") String username,
+            @Value("${carins.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${carins.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${carins.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${carins.datasource.replicas.lag-query:}") String lagQuery) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url).username(username).password(password).build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        replicaReads.enable();
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaReads, maxLag, lagQuery, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionPerTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
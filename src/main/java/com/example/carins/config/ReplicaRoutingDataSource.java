@@ -0,0 +1,142 @@
+package com.example.carins.config;
+
+import com.example.carins.service.ReplicaReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The application's DataSource when replicas are configured. Transactions that opted in through
+ * {@link ReplicaReads} get a connection round-robin from the replicas that are close enough to the primary,
+ * or from the primary when none is; all other connections come from the primary.
+ *
+ * The lag of each replica is measured every {@code carins.datasource.replicas.lag-check-interval} with
+ * {@code lag-query}, which must return the replica's lag in milliseconds (for PostgreSQL, e.g.
+ * {@code select extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000}). Without a lag query a
+ * reachable replica is assumed to lag by {@code max-lag}. A replica is used when its lag is at most
+ * {@code max-lag} and shorter than the time since the last write the transaction must see; until its
+ * first check, and while unreachable, it is not used.
+ *
+ * Publishes {@code carins.datasource.reads}, the connections handed to opted-in transactions, tagged
+ * {@code target=replica|primary}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        /** Last measured lag, {@code Long.MAX_VALUE} until measured and while unreachable. */
+        volatile long lagNanos = Long.MAX_VALUE;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaReads replicaReads;
+    private final long maxLagNanos;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaConnections;
+    private final Counter primaryConnections;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReplicaReads replicaReads, Duration maxLag, String lagQuery,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.replicaReads = replicaReads;
+        this.maxLagNanos = maxLag.toNanos();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+
+        this.replicaConnections = Counter.builder("carins.datasource.reads").tag("target", "replica")
+                .description("Connections handed out to transactions allowed to read a replica").register(meterRegistry);
+        this.primaryConnections = Counter.builder("carins.datasource.reads").tag("target", "primary")
+                .description("Connections handed out to transactions allowed to read a replica").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return choose().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return choose().getConnection(username, password);
+    }
+
+    private DataSource choose() {
+        long allowedLag = replicaReads.allowedLagNanos();
+        if (allowedLag < 0) {
+            return primary;
+        }
+        allowedLag = Math.min(allowedLag, maxLagNanos);
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.lagNanos <= allowedLag) {
+                replicaConnections.increment();
+                return replica.dataSource;
+            }
+        }
+        primaryConnections.increment();
+        return primary;
+    }
+
+    @Scheduled(fixedDelayString = "${carins.datasource.replicas.lag-check-interval:1s}")
+    public void refreshLag() {
+        for (Replica replica : replicas) {
+            long lag = measureLag(replica);
+            boolean wasUsable = replica.lagNanos <= maxLagNanos;
+            replica.lagNanos = lag;
+            if (lag <= maxLagNanos && !wasUsable) {
+                logger.info("Replica {} in use", replica.dataSource.getPoolName());
+            } else if (lag > maxLagNanos && wasUsable) {
+                logger.warn("Replica {} taken out of use: {}", replica.dataSource.getPoolName(),
+                        lag == Long.MAX_VALUE ? "unreachable" : "lags by " + TimeUnit.NANOSECONDS.toMillis(lag) + " ms");
+            }
+        }
+    }
+
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(1) ? maxLagNanos : Long.MAX_VALUE;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                if (!rs.next()) {
+                    return maxLagNanos;
+                }
+                long lagMillis = rs.getLong(1);
+                return rs.wasNull() ? maxLagNanos : TimeUnit.MILLISECONDS.toNanos(Math.max(lagMillis, 0));
+            }
+        } catch (SQLException e) {
+            logger.debug("Lag check of replica {} failed", replica.dataSource.getPoolName(), e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.carins.config;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Regions of the Hibernate second-level cache: the reference entities {@link Car}, {@link Owner} and
+ * {@link InsurancePolicy}, the cached queries, and Hibernate's update timestamps, which invalidate the
+ * cached queries when a table they read is written through Hibernate.
+ *
+ * Each region holds at most {@code carins.l2cache.<region>.max-size} entries for at most
+ * {@code carins.l2cache.<region>.ttl}. The regions live in an in-process Ehcache behind JCache, in a cache
+ * manager of this application context rather than the JVM-wide default one, so that contexts on different
+ * databases (as in the tests) never share entries.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment env) {
+        ConfigurationBuilder regions = ConfigurationBuilder.newConfigurationBuilder();
+        regions = region(regions, env, Car.class.getName(), "car", 10_000, Duration.ofMinutes(10));
+        regions = region(regions, env, Owner.class.getName(), "owner", 10_000, Duration.ofMinutes(10));
+        regions = region(regions, env, InsurancePolicy.class.getName(), "policy", 50_000, Duration.ofMinutes(10));
+        regions = region(regions, env, CarRepository.BY_VIN_REGION, "car-by-vin", 10_000, Duration.ofMinutes(10));
+        regions = region(regions, env, InsurancePolicyRepository.ACTIVE_ON_DATE_REGION, "policy-active", 50_000, Duration.ofMinutes(10));
+        regions = region(regions, env, QUERY_RESULTS_REGION, "query", 1_000, Duration.ofMinutes(10));
+        // a timestamp must outlive every query result it can invalidate, so this region never expires
+        regions = region(regions, env, UPDATE_TIMESTAMPS_REGION, "timestamps", 1_000, null);
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:carins:l2cache:" + ObjectUtils.getIdentityHexString(this)), regions.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static ConfigurationBuilder region(ConfigurationBuilder regions, Environment env, String name, String key,
+                                               long defaultSize, Duration defaultTtl) {
+        long maxSize = env.getProperty("carins.l2cache." + key + ".max-size", Long.class, defaultSize);
+        Duration ttl = env.getProperty("carins.l2cache." + key + ".ttl", Duration.class, defaultTtl);
+        return regions.withCache(name, CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxSize))
+                .withExpiry(ttl != null ? ExpiryPolicyBuilder.timeToLiveExpiration(ttl) : ExpiryPolicyBuilder.noExpiration()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.carins.config;
+
+import com.example.carins.service.ValidatedDate;
+import com.example.carins.service.ValidationService;
+import com.example.carins.web.IsoDateArgumentResolver;
+import io.swagger.v3.oas.models.media.StringSchema;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    static {
+        // Documented as the plain date string it is bound from
+        SpringDocUtils.getConfig().replaceWithSchema(ValidatedDate.class, new StringSchema().format("date"));
+    }
+
+    private final ValidationService validationService;
+
+    public WebConfig(ValidationService validationService) {
+        this.validationService = validationService;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new IsoDateArgumentResolver(validationService));
+    }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDate;
 @Table(name = "claim")
 public class Claim {
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_seq")
+    @SequenceGenerator(name = "claim_seq", sequenceName = "claim_seq", allocationSize = 50)   //pooled ids, lets Hibernate batch inserts
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
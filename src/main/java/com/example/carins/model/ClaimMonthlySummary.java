@@ -0,0 +1,58 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Claim totals of one car in one calendar month, keyed by the first day of the month.
+ */
+@Entity
+@Table(name = "claim_monthly_summary")
+@IdClass(ClaimMonthlySummary.Key.class)
+public class ClaimMonthlySummary {
+    @Id
+    @Column(name = "car_id")
+    private Long carId;
+
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Column(name = "claim_count", nullable = false)
+    private long claimCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private long totalAmount;
+
+    public ClaimMonthlySummary() {}
+
+    public Long getCarId() { return carId; }
+    public LocalDate getMonthStart() { return monthStart; }
+    public long getClaimCount() { return claimCount; }
+    public long getTotalAmount() { return totalAmount; }
+
+    public static class Key implements Serializable {
+        private Long carId;
+        private LocalDate monthStart;
+
+        public Key() {}
+
+        public Key(Long carId, LocalDate monthStart) {
+            this.carId = carId;
+            this.monthStart = monthStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(carId, other.carId) && Objects.equals(monthStart, other.monthStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(carId, monthStart);
+        }
+    }
+}
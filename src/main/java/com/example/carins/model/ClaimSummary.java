@@ -0,0 +1,35 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Claim totals of one car, kept up to date with every claim written. See {@code ClaimRollupService}.
+ */
+@Entity
+@Table(name = "claim_summary", indexes = {
+    @Index(name = "idx_claim_summary_total_amount", columnList = "total_amount desc, car_id"),
+    @Index(name = "idx_claim_summary_claim_count", columnList = "claim_count desc, car_id")
+})
+public class ClaimSummary {
+    @Id
+    @Column(name = "car_id")
+    private Long carId;
+
+    @Column(name = "claim_count", nullable = false)
+    private long claimCount;
+
+    @Column(name = "total_amount", nullable = false)
+    private long totalAmount;
+
+    @Column(name = "last_claim_date", nullable = false)
+    private LocalDate lastClaimDate;
+
+    public ClaimSummary() {}
+
+    public Long getCarId() { return carId; }
+    public long getClaimCount() { return claimCount; }
+    public long getTotalAmount() { return totalAmount; }
+    public LocalDate getLastClaimDate() { return lastClaimDate; }
+}
@@ -11,7 +11,8 @@ import java.time.LocalDate;
 @Table(name = "history")
 public class History {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_seq")
+    @SequenceGenerator(name = "history_seq", sequenceName = "history_seq", allocationSize = 50)   //pooled ids, lets Hibernate batch inserts
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
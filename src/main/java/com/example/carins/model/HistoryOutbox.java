@@ -0,0 +1,46 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * History event written in the same transaction as the change it records, and moved into
+ * {@link History} asynchronously. Rows left here after a crash are replayed on the next start.
+ */
+@Entity
+@Table(name = "history_outbox")
+public class HistoryOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "history_outbox_seq")
+    @SequenceGenerator(name = "history_outbox_seq", sequenceName = "history_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "car_id", nullable = false)
+    private Long carId;
+
+    @Column(nullable = false, length = 500)
+    private String event;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public HistoryOutbox() {}
+
+    public HistoryOutbox(Long carId, String event, LocalDate date, Instant createdAt) {
+        this.carId = carId;
+        this.event = event;
+        this.date = date;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getCarId() { return carId; }
+    public String getEvent() { return event; }
+    public LocalDate getDate() { return date; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,48 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+/**
+ * Persisted progress of an incremental job over rows ordered by {@code (date, id)}.
+ * Everything up to and including {@code (cursorDate, cursorId)} has been processed.
+ */
+@Entity
+@Table(name = "job_watermark")
+public class JobWatermark {
+    /** Cursor id meaning "every row of cursorDate is done". */
+    public static final long END_OF_DAY = Long.MAX_VALUE;
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDate cursorDate;
+
+    @Column(nullable = false)
+    private long cursorId;
+
+    public JobWatermark() {}
+
+    public JobWatermark(String name, LocalDate cursorDate, long cursorId) {
+        this.name = name;
+        this.cursorDate = cursorDate;
+        this.cursorId = cursorId;
+    }
+
+    public String getName() { return name; }
+    public LocalDate getCursorDate() { return cursorDate; }
+    public long getCursorId() { return cursorId; }
+
+    public void advanceTo(LocalDate date, long id) {
+        this.cursorDate = date;
+        this.cursorId = id;
+    }
+
+    /** Whether every row dated on or before the given day has been processed. */
+    public boolean covers(LocalDate date) {
+        return cursorDate.isAfter(date) || (cursorDate.isEqual(date) && cursorId == END_OF_DAY);
+    }
+}
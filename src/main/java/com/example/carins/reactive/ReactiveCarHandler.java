@@ -0,0 +1,109 @@
+package com.example.carins.reactive;
+
+import com.example.carins.service.ValidatedDate;
+import com.example.carins.service.ValidationService;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ErrorResponse;
+import com.example.carins.web.dto.HistoryDto;
+import com.example.carins.web.dto.InsuranceValidityResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking versions of the read endpoints of {@code CarController}, with the same paths, bodies and
+ * error responses.
+ *
+ * The car listing is written as rows arrive from the database and follows the client's demand, so a slow
+ * reader holds back the query instead of filling memory. Ask for {@code application/x-ndjson} to get one car
+ * per line instead of a JSON array.
+ */
+class ReactiveCarHandler {
+
+    private final ReactiveCarQueries queries;
+    private final ValidationService validationService;
+    private final int prefetch;
+
+    ReactiveCarHandler(ReactiveCarQueries queries, ValidationService validationService, int prefetch) {
+        this.queries = queries;
+        this.validationService = validationService;
+        this.prefetch = prefetch;
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/cars", this::listCars)
+                .GET("/api/cars/{carId}/insurance-valid", this::isInsuranceValid)
+                .GET("/api/cars/{carId}/history", this::getCarHistory)
+                .build();
+    }
+
+    Mono<ServerResponse> listCars(ServerRequest request) {
+        MediaType type = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(type).body(queries.findAllCars().limitRate(prefetch), CarDto.class);
+    }
+
+    Mono<ServerResponse> isInsuranceValid(ServerRequest request) {
+        Long carId = carId(request);
+        if (carId == null) {
+            return error(HttpStatus.BAD_REQUEST, new ErrorResponse("Invalid car id", "carId", 400));
+        }
+        ValidatedDate date = validationService.validateDate(request.queryParam("date").orElse(null));
+        String dateError = switch (date.getStatus()) {
+            case VALID -> null;
+            case MISSING -> "Date is required";
+            case INVALID_FORMAT -> "";
+            case OUT_OF_RANGE -> "Date out of range";
+        };
+        if (dateError != null) {
+            return error(HttpStatus.BAD_REQUEST, new ErrorResponse(dateError, 400));
+        }
+
+        return queries.existsActiveOnDate(carId, date.toLocalDate())
+                .flatMap(valid -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new InsuranceValidityResponse(carId, date.toString(), valid)))
+                .switchIfEmpty(Mono.defer(this::carNotFound));
+    }
+
+    Mono<ServerResponse> getCarHistory(ServerRequest request) {
+        Long carId = carId(request);
+        if (carId == null) {
+            return error(HttpStatus.BAD_REQUEST, new ErrorResponse("Invalid car id", "carId", 400));
+        }
+        return queries.carExists(carId).flatMap(exists -> exists
+                ? ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(queries.findHistory(carId), HistoryDto.class)
+                : carNotFound());
+    }
+
+    private Mono<ServerResponse> carNotFound() {
+        return error(HttpStatus.NOT_FOUND, new ErrorResponse("Car not found", 404));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, ErrorResponse body) {
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+    }
+
+    /**
+     * @return the {@code carId} path variable, or {@code null} if it is not a number
+     */
+    private static Long carId(ServerRequest request) {
+        String text = request.pathVariable("carId");
+        if (text.isEmpty() || text.length() > 18) {
+            return null;
+        }
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.carins.reactive;
+
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.HistoryDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+
+/**
+ * R2DBC counterparts of the JPA queries behind the read endpoints, mapped straight to the DTOs the
+ * blocking API returns.
+ *
+ * r2dbc-h2 wraps the embedded H2 engine and runs every statement synchronously on the subscribing thread, so
+ * each query is subscribed on {@link Schedulers#boundedElastic()} to keep it off the Netty event loops.
+ */
+class ReactiveCarQueries {
+
+    private final DatabaseClient client;
+
+    ReactiveCarQueries(DatabaseClient client) {
+        this.client = client;
+    }
+
+    /** Cars with their owners, as {@code CarRepository.findAll()} with its owner entity graph. */
+    Flux<CarDto> findAllCars() {
+        return client.sql("SELECT c.id, c.vin, c.make, c.model, c.year_of_manufacture, o.id AS owner_id, o.name, o.email "
+                        + "FROM car c LEFT JOIN owner o ON o.id = c.owner_id ORDER BY c.id")
+                .map(ReactiveCarQueries::toCarDto)
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    Mono<Boolean> carExists(long carId) {
+        return client.sql("SELECT 1 FROM car WHERE id = :carId")
+                .bind("carId", carId)
+                .map(row -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Same predicate as {@code InsurancePolicyRepository.existsActiveOnDate}, evaluated per car so that an
+     * unknown car comes back empty instead of {@code false}.
+     */
+    Mono<Boolean> existsActiveOnDate(long carId, LocalDate date) {
+        return client.sql("SELECT EXISTS (SELECT 1 FROM insurancepolicy p WHERE p.car_id = c.id "
+                        + "AND p.start_date <= :date AND (p.end_date IS NULL OR p.end_date >= :date)) AS active "
+                        + "FROM car c WHERE c.id = :carId")
+                .bind("carId", carId)
+                .bind("date", date)
+                .map(row -> row.get("active", Boolean.class))
+                .one()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Same rows and order as {@code HistoryRepository.findByCarIdOrderByDateAsc}. */
+    Flux<HistoryDto> findHistory(long carId) {
+        return client.sql("SELECT id, car_id, event, date FROM history WHERE car_id = :carId ORDER BY date ASC")
+                .bind("carId", carId)
+                .map(row -> new HistoryDto(row.get("id", Long.class), row.get("car_id", Long.class),
+                        row.get("event", String.class), row.get("date", LocalDate.class)))
+                .all()
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static CarDto toCarDto(Readable row) {
+        Integer year = row.get("year_of_manufacture", Integer.class);
+        return new CarDto(row.get("id", Long.class), row.get("vin", String.class), row.get("make", String.class),
+                row.get("model", String.class), year != null ? year : 0, row.get("owner_id", Long.class),
+                row.get("name", String.class), row.get("email", String.class));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.carins.reactive;
+
+import com.example.carins.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking read API for the partner gateway, served next to the servlet API on its own port when
+ * {@code carins.reactive.enabled=true}.
+ *
+ * Requests are handled on Reactor Netty's event loops, and the database is reached through R2DBC with
+ * its own connection pool. r2dbc-h2 executes statements synchronously, so {@link ReactiveCarQueries} runs
+ * them on Reactor's bounded elastic scheduler: a query still occupies a thread while it runs, but never an
+ * event loop. It opens the same in-memory H2 database
+ * as the JPA side, by name, because both run in one JVM. The gateway is deliberately not a Spring context
+ * of its own: it holds no repositories and only borrows the ObjectMapper and the ValidationService, so the
+ * two stacks share the DTOs and rules but not the blocking data access.
+ */
+@Component
+@ConditionalOnProperty(prefix = "carins.reactive", name = "enabled", havingValue = "true")
+public class ReactiveGateway implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGateway.class);
+
+    private final ObjectMapper objectMapper;
+    private final ValidationService validationService;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int port;
+    private final int poolSize;
+    private final int prefetch;
+
+    private ConnectionPool connectionPool;
+    private DisposableServer server;
+
+    public ReactiveGateway(ObjectMapper objectMapper, ValidationService validationService,
+                           @Value("${carins.reactive.url:r2dbc:h2:mem:///carins}") String url,
+                           @Value("${spring.datasource.username:sa}") String username,
+                           @Value("${spring.datasource.password:}") String password,
+                           @Value("${carins.reactive.port:8081}") int port,
+                           @Value("${carins.reactive.pool-size:10}") int poolSize,
+                           @Value("${carins.reactive.prefetch:256}") int prefetch) {
+        this.objectMapper = objectMapper;
+        this.validationService = validationService;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.port = port;
+        this.poolSize = poolSize;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void start() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .build());
+
+        ReactiveCarHandler handler = new ReactiveCarHandler(
+                new ReactiveCarQueries(DatabaseClient.create(connectionPool)), validationService, prefetch);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(handler.routes(), strategies)))
+                .bindNow();
+        logger.info("Reactive gateway listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow(Duration.ofSeconds(10));
+            server = null;
+        }
+        if (connectionPool != null) {
+            connectionPool.dispose();
+            connectionPool = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return the bound port, which differs from the configured one when that is 0
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
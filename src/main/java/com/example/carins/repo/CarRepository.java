@@ -1,16 +1,50 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
+
+    /** Query cache region of {@link #findByVin}. */
+    String BY_VIN_REGION = "carins.query.car-by-vin";
+
     @EntityGraph(attributePaths = {"owner"})
     List<Car> findAll();
+
+    @QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = BY_VIN_REGION) })
     Optional<Car> findByVin(String vin);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"owner"})
+    Optional<Car> findWithOwnerById(Long id);
+
+    @Query("select c.id from Car c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.carins.repo.CarVin(c.id, c.vin) from Car c where c.vin in :vins")
+    List<CarVin> findIdsByVinIn(@Param("vins") Collection<String> vins);
+
+    @EntityGraph(attributePaths = {"owner"})
+    List<Car> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select c from Car c join fetch c.owner order by c.id")
+    Stream<Car> streamAllWithOwner();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select c.id from Car c")
+    Stream<Long> streamAllIds();
+}
@@ -0,0 +1,40 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ClaimMonthlySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ClaimMonthlySummaryRepository extends JpaRepository<ClaimMonthlySummary, ClaimMonthlySummary.Key> {
+
+    @Modifying
+    @Query(value = """
+            MERGE INTO claim_monthly_summary s
+            USING (VALUES (CAST(:carId AS BIGINT), CAST(:monthStart AS DATE), CAST(:claims AS BIGINT), CAST(:amount AS BIGINT)))
+                AS d(car_id, month_start, claim_count, total_amount)
+            ON s.car_id = d.car_id AND s.month_start = d.month_start
+            WHEN MATCHED THEN UPDATE SET
+                claim_count = s.claim_count + d.claim_count,
+                total_amount = s.total_amount + d.total_amount
+            WHEN NOT MATCHED THEN INSERT (car_id, month_start, claim_count, total_amount)
+                VALUES (d.car_id, d.month_start, d.claim_count, d.total_amount)
+            """, nativeQuery = true)
+    int addClaims(@Param("carId") Long carId, @Param("monthStart") LocalDate monthStart,
+                  @Param("claims") long claims, @Param("amount") long amount);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO claim_monthly_summary (car_id, month_start, claim_count, total_amount)
+            SELECT car_id, CAST(DATE_TRUNC('MONTH', claim_date) AS DATE), COUNT(*), SUM(amount)
+            FROM claim GROUP BY car_id, CAST(DATE_TRUNC('MONTH', claim_date) AS DATE)
+            """, nativeQuery = true)
+    int rebuildFromClaims();
+
+    List<ClaimMonthlySummary> findByCarIdOrderByMonthStartAsc(Long carId);
+}
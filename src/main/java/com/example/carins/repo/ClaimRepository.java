@@ -1,12 +1,28 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.Claim;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
     List<Claim> findByCarId(Long carId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select c from Claim c where c.car.id = :carId order by c.claimDate, c.id")
+    Stream<Claim> streamByCarId(@Param("carId") Long carId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select c from Claim c where c.claimDate between :from and :to order by c.car.id, c.claimDate, c.id")
+    Stream<Claim> streamByClaimDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -0,0 +1,46 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ClaimSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ClaimSummaryRepository extends JpaRepository<ClaimSummary, Long> {
+
+    /**
+     * Adds claims to the totals of a car in a single statement, creating the row for its first claim.
+     */
+    @Modifying
+    @Query(value = """
+            MERGE INTO claim_summary s
+            USING (VALUES (CAST(:carId AS BIGINT), CAST(:claims AS BIGINT), CAST(:amount AS BIGINT), CAST(:lastClaimDate AS DATE)))
+                AS d(car_id, claim_count, total_amount, last_claim_date)
+            ON s.car_id = d.car_id
+            WHEN MATCHED THEN UPDATE SET
+                claim_count = s.claim_count + d.claim_count,
+                total_amount = s.total_amount + d.total_amount,
+                last_claim_date = GREATEST(s.last_claim_date, d.last_claim_date)
+            WHEN NOT MATCHED THEN INSERT (car_id, claim_count, total_amount, last_claim_date)
+                VALUES (d.car_id, d.claim_count, d.total_amount, d.last_claim_date)
+            """, nativeQuery = true)
+    int addClaims(@Param("carId") Long carId, @Param("claims") long claims, @Param("amount") long amount,
+                  @Param("lastClaimDate") LocalDate lastClaimDate);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO claim_summary (car_id, claim_count, total_amount, last_claim_date)
+            SELECT car_id, COUNT(*), SUM(amount), MAX(claim_date) FROM claim GROUP BY car_id
+            """, nativeQuery = true)
+    int rebuildFromClaims();
+
+    List<ClaimSummary> findByOrderByTotalAmountDescCarIdAsc(Limit limit);
+
+    List<ClaimSummary> findByOrderByClaimCountDescCarIdAsc(Limit limit);
+}
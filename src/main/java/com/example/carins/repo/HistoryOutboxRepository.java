@@ -0,0 +1,14 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.HistoryOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface HistoryOutboxRepository extends JpaRepository<HistoryOutbox, Long> {
+    List<HistoryOutbox> findByCreatedAtBeforeOrderByIdAsc(Instant createdBefore, Limit limit);
+}
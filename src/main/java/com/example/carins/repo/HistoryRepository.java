@@ -1,12 +1,28 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.History;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface HistoryRepository extends JpaRepository<History, Long> {
     List<History> findByCarIdOrderByDateAsc(Long carId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select h from History h where h.car.id = :carId order by h.date, h.id")
+    Stream<History> streamByCarId(@Param("carId") Long carId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select h from History h where h.date between :from and :to order by h.car.id, h.date, h.id")
+    Stream<History> streamByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
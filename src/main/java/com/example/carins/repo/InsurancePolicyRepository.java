@@ -1,16 +1,28 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy, Long> {
 
+    /** Query cache region of {@link #existsActiveOnDate}, invalidated by any write to {@code insurancepolicy}. */
+    String ACTIVE_ON_DATE_REGION = "carins.query.policy-active";
+
+    @QueryHints({ @QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = ACTIVE_ON_DATE_REGION) })
     @Query("select case when count(p) > 0 then true else false end " +
            "from InsurancePolicy p " +
            "where p.car.id = :carId " +
@@ -23,4 +35,53 @@ public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy
     List<InsurancePolicy> findByEndDate(LocalDate endDate);
   
     List<InsurancePolicy> findByEndDateBefore(LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Next chunk of policies that ended on or before {@code upTo}, in {@code (endDate, id)} order
+     * after the given cursor.
+     */
+    @Query("select new com.example.carins.repo.PolicyExpiration(p.id, p.car.id, p.endDate) " +
+           "from InsurancePolicy p " +
+           "where p.endDate <= :upTo " +
+           "and (p.endDate > :afterDate or (p.endDate = :afterDate and p.id > :afterId)) " +
+           "order by p.endDate, p.id")
+    List<PolicyExpiration> findExpirationsAfter(@Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                                                @Param("upTo") LocalDate upTo, Limit limit);
+
+    @Query("select new com.example.carins.repo.PolicyExpiration(p.id, p.car.id, p.endDate) " +
+           "from InsurancePolicy p where p.endDate = :day")
+    List<PolicyExpiration> findExpirationsOn(@Param("day") LocalDate day);
+
+    @Query("select new com.example.carins.repo.PolicyExpiration(p.id, p.car.id, p.endDate) " +
+           "from InsurancePolicy p where p.id = :policyId")
+    Optional<PolicyExpiration> findExpirationById(@Param("policyId") Long policyId);
+
+    @Query("select new com.example.carins.repo.PolicyExpiration(p.id, p.car.id, p.endDate) " +
+           "from InsurancePolicy p where p.car.id = :carId and p.endDate between :from and :to")
+    List<PolicyExpiration> findExpirationsByCarIdBetween(@Param("carId") Long carId,
+                                                         @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new com.example.carins.repo.PolicyInterval(p.car.id, p.startDate, p.endDate) " +
+           "from InsurancePolicy p where p.car.id = :carId")
+    List<PolicyInterval> findIntervalsByCarId(@Param("carId") Long carId);
+
+    @Query("select new com.example.carins.repo.PolicyInterval(p.car.id, p.startDate, p.endDate) " +
+           "from InsurancePolicy p where p.car.id in :carIds")
+    List<PolicyInterval> findIntervalsByCarIdIn(@Param("carIds") Collection<Long> carIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.carins.repo.PolicyInterval(p.car.id, p.startDate, p.endDate) " +
+           "from InsurancePolicy p order by p.car.id")
+    Stream<PolicyInterval> streamAllIntervals();
+
+    /**
+     * Every car with the policies that overlap {@code [from, to]}, ordered by car and start date. A car
+     * without such a policy appears once, with {@code null} dates.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.carins.repo.PolicyInterval(c.id, p.startDate, p.endDate) " +
+           "from Car c left join InsurancePolicy p " +
+           "on p.car = c and p.startDate <= :to and p.endDate >= :from " +
+           "order by c.id, p.startDate")
+    Stream<PolicyInterval> streamIntervalsOfAllCarsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,8 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {}
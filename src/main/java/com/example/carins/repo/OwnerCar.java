@@ -0,0 +1,3 @@
+package com.example.carins.repo;
+
+public record OwnerCar(Long ownerId, Long carId, String vin, String make, String model, int yearOfManufacture) {}
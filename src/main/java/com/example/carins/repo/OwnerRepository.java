@@ -1,14 +1,34 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OwnerRepository extends JpaRepository<Owner, Long> {}
+public interface OwnerRepository extends JpaRepository<Owner, Long> {
 
+    List<Owner> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
+    @Query("select new com.example.carins.repo.OwnerCar(c.owner.id, c.id, c.vin, c.make, c.model, c.yearOfManufacture) " +
+           "from Car c where c.owner.id in :ownerIds order by c.owner.id, c.id")
+    List<OwnerCar> findCarsByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    /**
+     * Policies of the owners' cars that are active on a date, ordered by car and start date.
+     */
+    @Query("select new com.example.carins.repo.OwnerPolicy(p.id, p.car.id, p.provider, p.startDate, p.endDate) " +
+           "from InsurancePolicy p " +
+           "where p.car.owner.id in :ownerIds and p.startDate <= :date and p.endDate >= :date " +
+           "order by p.car.id, p.startDate")
+    List<OwnerPolicy> findActivePoliciesByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds,
+                                                    @Param("date") LocalDate date);
+
+    @Query("select s from ClaimSummary s where s.carId in (select c.id from Car c where c.owner.id in :ownerIds)")
+    List<ClaimSummary> findClaimSummariesByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+}
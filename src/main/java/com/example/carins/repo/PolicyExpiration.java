@@ -0,0 +1,5 @@
+package com.example.carins.repo;
+
+import java.time.LocalDate;
+
+public record PolicyExpiration(Long policyId, Long carId, LocalDate endDate) {}
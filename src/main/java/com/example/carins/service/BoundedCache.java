@@ -0,0 +1,130 @@
+package com.example.carins.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache holding at most {@code maxSize} entries for at most {@code ttl} each.
+ *
+ * Entries are kept in access order, so the least recently used one is evicted when the cache is full;
+ * an expired entry is dropped when it is next read. Loads run outside the lock, and a load that raced
+ * with an invalidation is returned to its caller but not stored, so an invalidated value cannot come back.
+ *
+ * Publishes {@code carins.cache.gets} (tagged {@code result=hit|miss}), {@code carins.cache.evictions}
+ * (tagged {@code cause=size|expired}) and the {@code carins.cache.size} gauge, all tagged with the cache name.
+ */
+public final class BoundedCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /** Bumped by every invalidation; guarded by {@code this}. */
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+
+    public BoundedCache(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxSize, ttl, meterRegistry, System::nanoTime);
+    }
+
+    BoundedCache(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry, LongSupplier ticker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("carins.cache.gets").tag("cache", name).tag("result", "hit")
+                .description("Cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("carins.cache.gets").tag("cache", name).tag("result", "miss")
+                .description("Cache lookups").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("carins.cache.evictions").tag("cache", name).tag("cause", "size")
+                .description("Entries dropped from the cache").register(meterRegistry);
+        this.expirations = Counter.builder("carins.cache.evictions").tag("cache", name).tag("cause", "expired")
+                .description("Entries dropped from the cache").register(meterRegistry);
+        Gauge.builder("carins.cache.size", this, BoundedCache::size).tag("cache", name)
+                .description("Entries in the cache").register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. A {@code null} from the loader is returned as is and
+     * not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (ticker.getAsLong() - entry.expiresAt() < 0) {
+                    hits.increment();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, ticker.getAsLong() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<? super V> condition) {
+        generation++;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (condition.test(iterator.next().value())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
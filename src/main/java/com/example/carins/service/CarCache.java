@@ -0,0 +1,61 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cached car summaries, including the owner, used to answer "does this car exist" and single-car reads
+ * without a database round trip.
+ *
+ * Cars are dropped from the cache when they or their owner are written through Hibernate, see
+ * {@link CarCacheInvalidator}; the TTL bounds staleness after writes that bypass it. Unknown car ids are
+ * not cached.
+ */
+@Component
+public class CarCache {
+
+    private final CarRepository carRepository;
+    private final BoundedCache<Long, CarSummary> cars;
+
+    public CarCache(CarRepository carRepository, MeterRegistry meterRegistry,
+                    @Value("${carins.cache.cars.max-size:10000}") int maxSize,
+                    @Value("${carins.cache.cars.ttl:10m}") Duration ttl) {
+        this.carRepository = carRepository;
+        this.cars = new BoundedCache<>("cars", maxSize, ttl, meterRegistry);
+    }
+
+    public Optional<CarSummary> find(Long carId) {
+        return Optional.ofNullable(cars.get(carId, this::load));
+    }
+
+    public boolean exists(Long carId) {
+        return find(carId).isPresent();
+    }
+
+    void evict(Car car) {
+        cars.invalidate(car.getId());
+    }
+
+    void evict(Owner owner) {
+        cars.invalidateIf(car -> owner.getId().equals(car.ownerId()));
+    }
+
+    private CarSummary load(Long carId) {
+        return carRepository.findWithOwnerById(carId).map(CarCache::toSummary).orElse(null);
+    }
+
+    private static CarSummary toSummary(Car c) {
+        Owner o = c.getOwner();
+        return new CarSummary(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(),
+                o != null ? o.getId() : null,
+                o != null ? o.getName() : null,
+                o != null ? o.getEmail() : null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hibernate event listener that drops written cars and owners from {@link CarCache}, registered by
+ * {@code EntityEventConfig}.
+ *
+ * The entry is dropped when the change is flushed and again when the transaction completes, so a read
+ * between flush and commit cannot leave the old row cached.
+ */
+@Component
+public class CarCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final CarCache carCache;
+
+    public CarCacheInvalidator(CarCache carCache) {
+        this.carCache = carCache;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onWrite(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void onWrite(Object entity) {
+        Runnable evict = switch (entity) {
+            case Car car -> () -> carCache.evict(car);
+            case Owner owner -> () -> carCache.evict(owner);
+            default -> null;
+        };
+        if (evict == null) {
+            return;
+        }
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
@@ -7,61 +7,232 @@ import com.example.carins.repo.CarRepository;
 import com.example.carins.repo.ClaimRepository;
 import com.example.carins.repo.HistoryRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CarService {
 
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final CarRepository carRepository;
     private final InsurancePolicyRepository policyRepository;
     private final ClaimRepository claimRepository;
     private final HistoryRepository historyRepository;
+    private final PolicyCoverageIndex coverageIndex;
+    private final HistoryPipeline historyPipeline;
+    private final ClaimRollupService claimRollupService;
+    private final CarCache carCache;
+    private final ReplicaReads replicaReads;
+    private final CarVersions carVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public CarService(CarRepository carRepository, InsurancePolicyRepository policyRepository, 
-                     ClaimRepository claimRepository, HistoryRepository historyRepository) {
+                     ClaimRepository claimRepository, HistoryRepository historyRepository,
+                     PolicyCoverageIndex coverageIndex, HistoryPipeline historyPipeline,
+                     ClaimRollupService claimRollupService, CarCache carCache, ReplicaReads replicaReads,
+                     CarVersions carVersions) {
         this.carRepository = carRepository;
         this.policyRepository = policyRepository;
         this.claimRepository = claimRepository;
         this.historyRepository = historyRepository;
+        this.coverageIndex = coverageIndex;
+        this.historyPipeline = historyPipeline;
+        this.claimRollupService = claimRollupService;
+        this.carCache = carCache;
+        this.replicaReads = replicaReads;
+        this.carVersions = carVersions;
     }
 
+    @Transactional(readOnly = true)
     public List<Car> listCars() {
+        replicaReads.allow();
         return carRepository.findAll();
     }
 
+    /**
+     * Keyset page of cars with their owners, ordered by id.
+     *
+     * @param afterId id of the last car of the previous page, {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<Car> listCars(Long afterId, int size) {
+        replicaReads.allow();
+        return carRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : Long.MIN_VALUE, Limit.of(size));
+    }
+
+    /**
+     * Walks all cars with their owners through a database cursor. Entities are evicted from the persistence
+     * context in fetch-size steps, so memory use does not grow with the number of cars.
+     */
+    @Transactional(readOnly = true)
+    public void forEachCar(Consumer<Car> action) {
+        replicaReads.allow();
+        forEachClearing(carRepository.streamAllWithOwner(), action);
+    }
+
     public boolean isInsuranceValid(Long carId, LocalDate date) {
         if (carId == null || date == null) return false;
         
-        carRepository.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
+        return isInsuranceValid(carId, Math.toIntExact(date.toEpochDay()));
+    }
+
+    public boolean isInsuranceValid(Long carId, int epochDay) {
+        if (carId == null) return false;
+
+        int[] coverage = coverageIndex.coverage(carId);
+        if (coverage == null) {
+            // Not indexed yet: prove the car exists, then load it into the index
+            verifyCarExists(carId);
+            coverage = coverageIndex.refresh(carId);
+        }
         
-        return policyRepository.existsActiveOnDate(carId, date);
+        return PolicyCoverageIndex.covers(coverage, epochDay);
+    }
+
+    /**
+     * Resolves the coverage of many cars at once. Cars missing from the index are loaded with a fixed
+     * number of set-based queries; cars that do not exist are absent from the returned map.
+     */
+    public Map<Long, int[]> getCoverage(Collection<Long> carIds) {
+        Map<Long, int[]> coverageByCar = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long carId : carIds) {
+            int[] coverage = coverageIndex.coverage(carId);
+            if (coverage != null) {
+                coverageByCar.put(carId, coverage);
+            } else {
+                missing.add(carId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            coverageIndex.refreshAll(missing);
+            for (Long carId : missing) {
+                int[] coverage = coverageIndex.coverage(carId);
+                if (coverage != null) {
+                    coverageByCar.put(carId, coverage);
+                }
+            }
+        }
+        return coverageByCar;
     }
 
     @Transactional
     public Claim registerClaim(Long carId, LocalDate claimDate, String description, int amount) {
-        Car car = carRepository.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
+        verifyCarExists(carId);
+        Car car = carRepository.getReferenceById(carId);
         
         Claim claim = new Claim(car, claimDate, description, amount);
         Claim savedClaim = claimRepository.save(claim);
+        claimRollupService.record(savedClaim);
         
-        // Add history entry for the claim
-        History history = new History(car, description, claimDate);
-        historyRepository.save(history);
+        // History entry is written asynchronously, see HistoryPipeline
+        historyPipeline.record(carId, description, claimDate);
+        replicaReads.recordWrite(carId);
+        carVersions.bumpCar(carId);
         
         return savedClaim;
     }
 
+    /**
+     * Claim totals of a car, read from the rollup tables.
+     */
+    public ClaimRollupService.ClaimRollup getClaimRollup(Long carId) {
+        ClaimRollupService.ClaimRollup rollup = claimRollupService.getRollup(carId);
+        if (rollup.totals() == null) {
+            verifyCarExists(carId);
+        }
+        return rollup;
+    }
+
+    /**
+     * ETag of what the API shows about the car, read without touching the database. See {@link CarVersions}.
+     */
+    public String getCarTag(Long carId) {
+        return carVersions.carTag(carId);
+    }
+
+    /**
+     * ETag of the car list, read without touching the database.
+     */
+    public String getFleetTag() {
+        return carVersions.fleetTag();
+    }
+
+    public CarSummary getCar(Long carId) {
+        return carCache.find(carId)
+                .orElseThrow(() -> NotFoundException.car(carId));
+    }
+
+    public void verifyCarExists(Long carId) {
+        if (!carCache.exists(carId)) {
+            throw NotFoundException.car(carId);
+        }
+    }
+
+    /**
+     * Walks the history of one car in chronological order through a database cursor.
+     */
+    @Transactional(readOnly = true)
+    public void forEachHistoryEvent(Long carId, Consumer<History> action) {
+        replicaReads.allowForCar(carId);
+        forEachClearing(historyRepository.streamByCarId(carId), action);
+    }
+
+    /**
+     * Walks the history of the whole fleet between two dates (inclusive), ordered by car and date.
+     */
+    @Transactional(readOnly = true)
+    public void forEachHistoryEvent(LocalDate from, LocalDate to, Consumer<History> action) {
+        replicaReads.allow();
+        forEachClearing(historyRepository.streamByDateBetween(from, to), action);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachClaim(Long carId, Consumer<Claim> action) {
+        replicaReads.allowForCar(carId);
+        forEachClearing(claimRepository.streamByCarId(carId), action);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachClaim(LocalDate from, LocalDate to, Consumer<Claim> action) {
+        replicaReads.allow();
+        forEachClearing(claimRepository.streamByClaimDateBetween(from, to), action);
+    }
+
+    @Transactional(readOnly = true)
     public List<History> getCarHistory(Long carId) {
-        // Verify car exists
-        carRepository.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
-        
+        // checked before opting in, so that a cache miss loads the car from the primary (which then serves
+        // the history too) and a car not yet on the replica is not reported missing
+        verifyCarExists(carId);
+        replicaReads.allowForCar(carId);
+
         return historyRepository.findByCarIdOrderByDateAsc(carId);
     }
+
+    private <T> void forEachClearing(Stream<T> rows, Consumer<T> action) {
+        try (rows) {
+            int[] seen = {0};
+            rows.forEach(row -> {
+                action.accept(row);
+                if (++seen[0] % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.carins.service;
+
+/**
+ * A car with its owner, as kept in {@link CarCache}. The owner fields are {@code null} for a car without owner.
+ */
+public record CarSummary(Long id, String vin, String make, String model, int yearOfManufacture,
+                         Long ownerId, String ownerName, String ownerEmail) {}
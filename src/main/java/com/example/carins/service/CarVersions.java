@@ -0,0 +1,104 @@
+package com.example.carins.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions of what the API shows about each car, and of the car list, used as ETags so that unchanged
+ * responses can be answered with 304 without reading the database.
+ *
+ * A car's version moves on after every committed claim, policy or history write of the car; the fleet
+ * version after every committed car or owner write through Hibernate, see {@link CarVersionListener}.
+ * Versions are taken from one counter, so they only grow. They are bumped after commit, and readers take
+ * the tag before reading the rows: a tag may come with rows newer than it, never older.
+ *
+ * Cars that were never written share version 0, so a tag says nothing about whether its car exists.
+ *
+ * Versions live in memory, so the tag carries the startup time of this instance to tell its versions
+ * apart from those of an earlier run. Writes that bypass these hooks must call {@link #invalidateAll}.
+ */
+@Component
+public class CarVersions {
+
+    private final AtomicLong counter = new AtomicLong();
+    // cars that were never written since startup are at version 0
+    private final Map<Long, Long> carVersions = new ConcurrentHashMap<>();
+    private final AtomicLong fleetVersion = new AtomicLong();
+    private volatile long epoch = System.currentTimeMillis();
+
+    /**
+     * @return the ETag of everything the API shows about the car
+     */
+    public String carTag(Long carId) {
+        return Long.toString(epoch, 36) + "-" + carVersions.getOrDefault(carId, 0L);
+    }
+
+    /**
+     * @return the ETag of the car list
+     */
+    public String fleetTag() {
+        return Long.toString(epoch, 36) + "-" + fleetVersion.get();
+    }
+
+    public void bumpCar(Long carId) {
+        bumpCars(List.of(carId));
+    }
+
+    /**
+     * Moves the versions of the given cars on, as of the commit of the current transaction if there is one.
+     */
+    public void bumpCars(Collection<Long> carIds) {
+        List<Long> written = List.copyOf(carIds);
+        afterCommit(() -> {
+            for (Long carId : written) {
+                bump(carId);
+            }
+        });
+    }
+
+    /**
+     * Starts a new set of tags, for writes that went around the hooks, such as bulk loads in plain SQL.
+     */
+    public synchronized void invalidateAll() {
+        epoch = Math.max(System.currentTimeMillis(), epoch + 1);
+        carVersions.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(PolicyChangedEvent event) {
+        bump(event.carId());
+    }
+
+    /**
+     * Moves the fleet version on, as of the commit of the current transaction if there is one.
+     */
+    public void bumpFleet() {
+        afterCommit(() -> fleetVersion.accumulateAndGet(counter.incrementAndGet(), Math::max));
+    }
+
+    private void bump(Long carId) {
+        // two writers may take counter values in one order and store them in the other
+        carVersions.merge(carId, counter.incrementAndGet(), Math::max);
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.carins.service;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * One claim of a bulk claim import, as read from the input by {@link ClaimImportService}.
+ */
+public record ClaimImportRow(
+    @NotNull(message = "Car ID is required")
+    Long carId,
+
+    @NotNull(message = "Claim date is required")
+    LocalDate claimDate,
+
+    @NotBlank(message = "Description is required")
+    @Size(min = 5, max = 500, message = "Description must be between 5 and 500 characters")
+    String description,
+
+    @NotNull(message = "Amount is required")
+    @Min(value = 1, message = "Amount must be greater than 0")
+    Integer amount
+) {}
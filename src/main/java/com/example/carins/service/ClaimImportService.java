@@ -0,0 +1,153 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.History;
+import com.example.carins.repo.CarRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Imports claims in bulk from a JSON array or newline-delimited JSON.
+ *
+ * The input is read one row at a time and processed in chunks: rows are validated, their cars are resolved
+ * with one set-based query per chunk, and the claims with their history entries are written in one
+ * transaction per chunk, together with the claim rollups of the chunk. Claim and History use pooled
+ * sequence ids, so Hibernate sends the inserts as JDBC batches.
+ */
+@Service
+public class ClaimImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimImportService.class);
+
+    private final CarRepository carRepository;
+    private final ClaimRollupService claimRollupService;
+    private final ReplicaReads replicaReads;
+    private final CarVersions carVersions;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ClaimImportService(CarRepository carRepository, ClaimRollupService claimRollupService,
+                              ReplicaReads replicaReads, CarVersions carVersions,
+                              ObjectMapper objectMapper, Validator validator,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${carins.claims.import.chunk-size:1000}") int chunkSize) {
+        this.carRepository = carRepository;
+        this.claimRollupService = claimRollupService;
+        this.replicaReads = replicaReads;
+        this.carVersions = carVersions;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReport importClaims(InputStream input) throws IOException {
+        ImportTally tally = new ImportTally();
+        List<ClaimImportRow> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                long row = tally.nextRow();
+                ClaimImportRow claim = toRow(node, row, tally);
+                if (claim != null) {
+                    chunk.add(claim);
+                    chunkRows.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, chunkRows, tally);
+                }
+            }
+        }
+        writeChunk(chunk, chunkRows, tally);
+
+        ImportReport result = tally.toReport();
+        logger.info("Claim import: {} rows, {} imported, {} rejected in {} ms ({} rows/s)",
+                result.received(), result.imported(), result.rejected(), result.durationMs(), result.rowsPerSecond());
+        return result;
+    }
+
+    private ClaimImportRow toRow(JsonNode node, long row, ImportTally tally) {
+        ClaimImportRow claim;
+        try {
+            claim = objectMapper.treeToValue(node, ClaimImportRow.class);
+        } catch (IOException e) {
+            tally.reject(row, null, "Malformed row");
+            return null;
+        }
+        Set<ConstraintViolation<ClaimImportRow>> violations = validator.validate(claim);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ClaimImportRow> violation = violations.iterator().next();
+            tally.reject(row, violation.getPropertyPath().toString(), violation.getMessage());
+            return null;
+        }
+        return claim;
+    }
+
+    private void writeChunk(List<ClaimImportRow> chunk, List<Long> chunkRows, ImportTally tally) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<Long> carIds = new HashSet<>();
+        for (ClaimImportRow claim : chunk) {
+            carIds.add(claim.carId());
+        }
+        Set<Long> existingCarIds = new HashSet<>(carRepository.findExistingIds(carIds));
+
+        List<ClaimImportRow> accepted = new ArrayList<>(chunk.size());
+        Set<Long> writtenCarIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (existingCarIds.contains(chunk.get(i).carId())) {
+                accepted.add(chunk.get(i));
+                writtenCarIds.add(chunk.get(i).carId());
+            } else {
+                tally.reject(chunkRows.get(i), "carId", "Car not found");
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Claim> claims = new ArrayList<>(accepted.size());
+            for (ClaimImportRow row : accepted) {
+                Car car = entityManager.getReference(Car.class, row.carId());
+                Claim claim = new Claim(car, row.claimDate(), row.description(), row.amount());
+                entityManager.persist(claim);
+                entityManager.persist(new History(car, row.description(), row.claimDate()));
+                claims.add(claim);
+            }
+            claimRollupService.recordAll(claims);
+            replicaReads.recordWrites(writtenCarIds);
+            carVersions.bumpCars(writtenCarIds);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        tally.imported(accepted.size());
+
+        chunk.clear();
+        chunkRows.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Claim;
+import com.example.carins.model.ClaimMonthlySummary;
+import com.example.carins.model.ClaimSummary;
+import com.example.carins.repo.ClaimMonthlySummaryRepository;
+import com.example.carins.repo.ClaimSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-car and per-month claim totals, maintained incrementally.
+ *
+ * Every claim write adds itself to {@code claim_summary} and {@code claim_monthly_summary} inside the
+ * transaction that inserts the claim, with one {@code MERGE} per table, so the totals never disagree with
+ * {@code claim}. Reads are primary-key lookups, and the fleet ranking walks an index on the ranked column,
+ * so neither scans {@code claim}.
+ */
+@Service
+public class ClaimRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimRollupService.class);
+
+    public enum Ranking { AMOUNT, COUNT }
+
+    /**
+     * Claim totals of one car; {@code totals} is {@code null} when the car has no claims.
+     */
+    public record ClaimRollup(ClaimSummary totals, List<ClaimMonthlySummary> months) {}
+
+    private record Totals(long claims, long amount, LocalDate lastClaimDate) {
+        static Totals of(Claim claim) {
+            return new Totals(1, claim.getAmount(), claim.getClaimDate());
+        }
+
+        Totals add(Totals other) {
+            LocalDate latest = other.lastClaimDate.isAfter(lastClaimDate) ? other.lastClaimDate : lastClaimDate;
+            return new Totals(claims + other.claims, amount + other.amount, latest);
+        }
+    }
+
+    private record MonthKey(Long carId, LocalDate monthStart) {}
+
+    private final ClaimSummaryRepository summaryRepository;
+    private final ClaimMonthlySummaryRepository monthlyRepository;
+
+    public ClaimRollupService(ClaimSummaryRepository summaryRepository, ClaimMonthlySummaryRepository monthlyRepository) {
+        this.summaryRepository = summaryRepository;
+        this.monthlyRepository = monthlyRepository;
+    }
+
+    /**
+     * Builds the rollups from {@code claim} when they are empty, e.g. on a fresh schema with seeded claims.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (summaryRepository.count() > 0) {
+            return;
+        }
+        int cars = summaryRepository.rebuildFromClaims();
+        monthlyRepository.deleteAllInBatch();
+        monthlyRepository.rebuildFromClaims();
+        if (cars > 0) {
+            logger.info("Rebuilt claim rollups for {} cars", cars);
+        }
+    }
+
+    /**
+     * Adds one claim to the rollups as part of the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Claim claim) {
+        recordAll(List.of(claim));
+    }
+
+    /**
+     * Adds a batch of claims as part of the current transaction, with one statement per car and per
+     * (car, month) rather than per claim.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Claim> claims) {
+        Map<Long, Totals> byCar = new HashMap<>();
+        Map<MonthKey, Totals> byMonth = new HashMap<>();
+        for (Claim claim : claims) {
+            Long carId = claim.getCar().getId();
+            Totals totals = Totals.of(claim);
+            byCar.merge(carId, totals, Totals::add);
+            byMonth.merge(new MonthKey(carId, claim.getClaimDate().withDayOfMonth(1)), totals, Totals::add);
+        }
+        byCar.forEach((carId, totals) ->
+                summaryRepository.addClaims(carId, totals.claims(), totals.amount(), totals.lastClaimDate()));
+        byMonth.forEach((key, totals) ->
+                monthlyRepository.addClaims(key.carId(), key.monthStart(), totals.claims(), totals.amount()));
+    }
+
+    @Transactional(readOnly = true)
+    public ClaimRollup getRollup(Long carId) {
+        ClaimSummary totals = summaryRepository.findById(carId).orElse(null);
+        List<ClaimMonthlySummary> months = totals != null ? monthlyRepository.findByCarIdOrderByMonthStartAsc(carId) : List.of();
+        return new ClaimRollup(totals, months);
+    }
+
+    /**
+     * The {@code limit} cars with the highest claim totals, ties broken by car id.
+     */
+    public List<ClaimSummary> topCars(Ranking ranking, int limit) {
+        return switch (ranking) {
+            case AMOUNT -> summaryRepository.findByOrderByTotalAmountDescCarIdAsc(Limit.of(limit));
+            case COUNT -> summaryRepository.findByOrderByClaimCountDescCarIdAsc(Limit.of(limit));
+        };
+    }
+}
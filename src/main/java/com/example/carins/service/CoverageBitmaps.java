@@ -0,0 +1,149 @@
+package com.example.carins.service;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cars covered on each day as compressed (Roaring) bitmaps of car ids, for fleet-wide questions such as
+ * which cars were uninsured on a day.
+ *
+ * A bitmap per day would repeat a car on every day of its policies. Instead a car is added to the "flip"
+ * bitmap of the first day of each of its coverage intervals and of the day after the interval ends, and
+ * the full set of covered cars is kept only every {@code carins.coverage.bitmaps.checkpoint-days} days. The
+ * cars covered on a day are then the checkpoint before it XOR the flips since, and the cars covered
+ * throughout a range are those covered on its first day AND NOT those that flip within it.
+ *
+ * {@link PolicyCoverageIndex} hands over every change to the merged coverage of a car, so both answer from
+ * the same intervals. Car ids must fit in an int, the key type of the bitmaps.
+ */
+@Component
+public class CoverageBitmaps {
+
+    // end dates are mandatory; an open end would count as covered up to here
+    private static final int LAST_DAY = Math.toIntExact(LocalDate.of(9999, 12, 31).toEpochDay());
+
+    private final int checkpointDays;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap cars = new RoaringBitmap();
+    private final TreeMap<Integer, RoaringBitmap> flips = new TreeMap<>();
+    // only non-empty checkpoints are kept; a missing one has no covered cars
+    private final TreeMap<Integer, RoaringBitmap> checkpoints = new TreeMap<>();
+    private volatile boolean ready;
+
+    public CoverageBitmaps(@Value("${carins.coverage.bitmaps.checkpoint-days:64}") int checkpointDays) {
+        this.checkpointDays = checkpointDays;
+    }
+
+    /**
+     * Replaces the coverage of a car, in the format of {@link PolicyCoverageIndex}.
+     *
+     * @param previous the coverage the car had, {@code null} if it was not indexed
+     * @param coverage the coverage it has now, {@code null} to drop the car
+     */
+    void replace(Long carId, int[] previous, int[] coverage) {
+        int car = Math.toIntExact(carId);
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                update(car, previous, false);
+            }
+            if (coverage != null) {
+                cars.add(car);
+                update(car, coverage, true);
+            } else {
+                cars.remove(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the bitmaps complete once every car was handed over, and compacts them.
+     */
+    void markReady() {
+        lock.writeLock().lock();
+        try {
+            // turns runs of consecutive car ids into run containers
+            cars.runOptimize();
+            checkpoints.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the ids of the known cars without an active policy on the day
+     */
+    public RoaringBitmap uninsuredOn(int epochDay) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.andNot(cars, coveredOn(epochDay));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the cars with an active policy on every day of {@code [fromDay, toDay]}
+     */
+    public RoaringBitmap insuredThroughout(int fromDay, int toDay) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap covered = coveredOn(fromDay);
+            covered.andNot(FastAggregation.or(flips.subMap(fromDay, false, toDay, true).values().iterator()));
+            return covered;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap coveredOn(int epochDay) {
+        int checkpoint = Math.floorDiv(epochDay, checkpointDays) * checkpointDays;
+        RoaringBitmap base = checkpoints.get(checkpoint);
+        RoaringBitmap covered = base != null ? base.clone() : new RoaringBitmap();
+        for (RoaringBitmap flipped : flips.subMap(checkpoint, false, epochDay, true).values()) {
+            covered.xor(flipped);
+        }
+        return covered;
+    }
+
+    private void update(int car, int[] coverage, boolean add) {
+        // merged intervals never touch, so no two of them flip a car on the same day
+        for (int i = 0; i < coverage.length; i += 2) {
+            int start = coverage[i];
+            int end = Math.min(coverage[i + 1], LAST_DAY);
+            set(flips, start, car, add);
+            set(flips, end + 1, car, add);
+            for (int day = Math.ceilDiv(start, checkpointDays) * checkpointDays; day <= end; day += checkpointDays) {
+                set(checkpoints, day, car, add);
+            }
+        }
+    }
+
+    private static void set(TreeMap<Integer, RoaringBitmap> bitmaps, int day, int car, boolean add) {
+        if (add) {
+            bitmaps.computeIfAbsent(day, d -> new RoaringBitmap()).add(car);
+            return;
+        }
+        RoaringBitmap bitmap = bitmaps.get(day);
+        if (bitmap != null) {
+            bitmap.remove(car);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(day);
+            }
+        }
+    }
+}
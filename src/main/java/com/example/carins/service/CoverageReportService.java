@@ -0,0 +1,307 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyInterval;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.example.carins.service.PolicyCoverageIndex.toEpochDay;
+
+/**
+ * Insurance coverage over a date range, for one car as a timeline and for the fleet as the cars with gaps.
+ *
+ * A timeline is read from {@link PolicyCoverageIndex}, the merged intervals that also answer validity checks.
+ * The fleet report reads the policies of every car in one database cursor ordered by car, and hands them in
+ * batches of {@code carins.coverage.batch-size} cars to a fork-join pool of {@code carins.coverage.parallelism}
+ * workers, which merge the intervals of each car and sweep them for gaps. The cursor is read on while up to
+ * two batches per worker are being swept; results are emitted in car order.
+ *
+ * Which cars were uninsured on a day, or insured throughout a range, is answered from {@link CoverageBitmaps}.
+ */
+@Service
+public class CoverageReportService {
+
+    /** Cars per fork-join leaf task. */
+    static final int SPLIT_THRESHOLD = 128;
+
+    /** Consecutive days on which a car was either insured or not. */
+    public record Span(LocalDate from, LocalDate to, boolean covered) {}
+
+    /** Alternating covered and uncovered spans of a car, together covering {@code from..to}. */
+    public record Timeline(Long carId, LocalDate from, LocalDate to, long coveredDays, long uncoveredDays,
+                           List<Span> spans) {}
+
+    /** The uncovered spans of a car that was uninsured on some day of the range. */
+    public record CarGaps(Long carId, long uncoveredDays, List<Span> gaps) {}
+
+    /** The first {@code carIds} of the {@code count} cars matching a coverage question over a range. */
+    public record MatchingCars(LocalDate from, LocalDate to, long count, List<Long> carIds, boolean truncated) {}
+
+    private final InsurancePolicyRepository policyRepository;
+    private final CarService carService;
+    private final ReplicaReads replicaReads;
+    private final CoverageBitmaps coverageBitmaps;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final int maxIds;
+
+    public CoverageReportService(InsurancePolicyRepository policyRepository, CarService carService,
+                                 ReplicaReads replicaReads, CoverageBitmaps coverageBitmaps,
+                                 @Value("${carins.coverage.parallelism:0}") int parallelism,
+                                 @Value("${carins.coverage.batch-size:10000}") int batchSize,
+                                 @Value("${carins.coverage.max-ids:10000}") int maxIds) {
+        this.policyRepository = policyRepository;
+        this.carService = carService;
+        this.replicaReads = replicaReads;
+        this.coverageBitmaps = coverageBitmaps;
+        this.maxIds = maxIds;
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(workers);
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = 2 * workers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Covered and uncovered spans of a car between two dates (inclusive).
+     */
+    public Timeline getTimeline(Long carId, LocalDate from, LocalDate to) {
+        int[] coverage = carService.getCoverage(List.of(carId)).get(carId);
+        if (coverage == null) {
+            throw NotFoundException.car(carId);
+        }
+        List<Span> spans = new ArrayList<>();
+        long[] uncoveredDays = {0};
+        forEachSpan(coverage, toEpochDay(from), toEpochDay(to), (first, last, covered) -> {
+            spans.add(new Span(LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last), covered));
+            if (!covered) {
+                uncoveredDays[0] += last - first + 1;
+            }
+        });
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        return new Timeline(carId, from, to, days - uncoveredDays[0], uncoveredDays[0], spans);
+    }
+
+    /**
+     * Cars without an active policy on a day.
+     *
+     * @param limit how many of their ids to list
+     */
+    public MatchingCars getUninsuredOn(LocalDate date, int limit) {
+        validateLimit(limit);
+        return matchingCars(date, date, readyBitmaps().uninsuredOn(toEpochDay(date)), limit);
+    }
+
+    /**
+     * Cars with an active policy on every day between two dates (inclusive).
+     *
+     * @param limit how many of their ids to list
+     */
+    public MatchingCars getInsuredThroughout(LocalDate from, LocalDate to, int limit) {
+        validateLimit(limit);
+        return matchingCars(from, to, readyBitmaps().insuredThroughout(toEpochDay(from), toEpochDay(to)), limit);
+    }
+
+    private void validateLimit(int limit) {
+        if (limit < 0 || limit > maxIds) {
+            throw new InvalidRequestException("Limit must be between 0 and " + maxIds, "limit");
+        }
+    }
+
+    private CoverageBitmaps readyBitmaps() {
+        if (!coverageBitmaps.isReady()) {
+            throw new NotReadyException("Coverage index is still being built");
+        }
+        return coverageBitmaps;
+    }
+
+    private static MatchingCars matchingCars(LocalDate from, LocalDate to, RoaringBitmap cars, int limit) {
+        long count = cars.getLongCardinality();
+        List<Long> carIds = new ArrayList<>((int) Math.min(limit, count));
+        PeekableIntIterator it = cars.getIntIterator();
+        while (carIds.size() < limit && it.hasNext()) {
+            carIds.add((long) it.next());
+        }
+        return new MatchingCars(from, to, count, carIds, count > carIds.size());
+    }
+
+    /**
+     * Walks the cars that lack an active policy on at least one day between two dates (inclusive), in car order.
+     */
+    @Transactional(readOnly = true)
+    public void forEachCarWithGaps(LocalDate from, LocalDate to, Consumer<CarGaps> action) {
+        replicaReads.allow();
+        int fromDay = toEpochDay(from);
+        int toDay = toEpochDay(to);
+        Deque<ForkJoinTask<List<CarGaps>>> inFlight = new ArrayDeque<>();
+        try {
+            try (Stream<PolicyInterval> intervals = policyRepository.streamIntervalsOfAllCarsBetween(from, to)) {
+                Batch batch = new Batch(batchSize);
+                Iterator<PolicyInterval> it = intervals.iterator();
+                while (it.hasNext()) {
+                    PolicyInterval interval = it.next();
+                    if (batch.cars == batchSize && !interval.carId().equals(batch.lastCarId())) {
+                        inFlight.add(pool.submit(new GapTask(batch, 0, batch.cars, fromDay, toDay)));
+                        drain(inFlight, maxBatchesInFlight, action);
+                        batch = new Batch(batchSize);
+                    }
+                    batch.add(interval);
+                }
+                if (batch.cars > 0) {
+                    inFlight.add(pool.submit(new GapTask(batch, 0, batch.cars, fromDay, toDay)));
+                }
+            }
+            drain(inFlight, 0, action);
+        } finally {
+            // the client went away or a batch failed: stop sweeping what nobody will read
+            inFlight.forEach(task -> task.cancel(false));
+        }
+    }
+
+    /**
+     * Emits finished batches in order, waiting for the oldest ones until at most {@code keep} are in flight.
+     */
+    private static void drain(Deque<ForkJoinTask<List<CarGaps>>> inFlight, int keep,
+                              Consumer<CarGaps> action) {
+        while (inFlight.size() > keep || (!inFlight.isEmpty() && inFlight.peekFirst().isDone())) {
+            inFlight.pollFirst().join().forEach(action);
+        }
+    }
+
+    /**
+     * Walks {@code [fromDay, toDay]} as alternating covered and uncovered spans of a coverage array in the
+     * format of {@link PolicyCoverageIndex}: sorted, with no two intervals overlapping or touching.
+     */
+    static void forEachSpan(int[] coverage, int fromDay, int toDay, SpanConsumer consumer) {
+        int day = fromDay;
+        for (int i = 0; i < coverage.length && day <= toDay; i += 2) {
+            int start = coverage[i];
+            int end = coverage[i + 1];
+            if (end < day) {
+                continue;
+            }
+            if (start > toDay) {
+                break;
+            }
+            if (start > day) {
+                consumer.accept(day, start - 1, false);
+            }
+            int last = Math.min(end, toDay);
+            consumer.accept(Math.max(start, day), last, true);
+            day = last + 1;
+        }
+        if (day <= toDay) {
+            consumer.accept(day, toDay, false);
+        }
+    }
+
+    @FunctionalInterface
+    interface SpanConsumer {
+        void accept(int firstDay, int lastDay, boolean covered);
+    }
+
+    /** Consecutive cars of the cursor with their policy intervals. */
+    private static final class Batch {
+        private final List<PolicyInterval> intervals;
+        private long[] carIds;
+        private int[] firstIntervals;
+        private int cars;
+
+        Batch(int batchSize) {
+            this.intervals = new ArrayList<>(batchSize);
+            this.carIds = new long[Math.min(batchSize, 1024)];
+            this.firstIntervals = new int[carIds.length];
+        }
+
+        void add(PolicyInterval interval) {
+            if (cars == 0 || carIds[cars - 1] != interval.carId()) {
+                if (cars == carIds.length) {
+                    carIds = Arrays.copyOf(carIds, cars * 2);
+                    firstIntervals = Arrays.copyOf(firstIntervals, cars * 2);
+                }
+                carIds[cars] = interval.carId();
+                firstIntervals[cars] = intervals.size();
+                cars++;
+            }
+            intervals.add(interval);
+        }
+
+        Long lastCarId() {
+            return carIds[cars - 1];
+        }
+
+        List<PolicyInterval> intervalsOf(int car) {
+            int end = car + 1 < cars ? firstIntervals[car + 1] : intervals.size();
+            return intervals.subList(firstIntervals[car], end);
+        }
+    }
+
+    /** Finds the gaps of the cars {@code [lo, hi)} of a batch, splitting the range until it is small. */
+    private static final class GapTask extends RecursiveTask<List<CarGaps>> {
+        private final Batch batch;
+        private final int lo;
+        private final int hi;
+        private final int fromDay;
+        private final int toDay;
+
+        GapTask(Batch batch, int lo, int hi, int fromDay, int toDay) {
+            this.batch = batch;
+            this.lo = lo;
+            this.hi = hi;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        protected List<CarGaps> compute() {
+            if (hi - lo > SPLIT_THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                GapTask left = new GapTask(batch, lo, mid, fromDay, toDay);
+                left.fork();
+                List<CarGaps> right = new GapTask(batch, mid, hi, fromDay, toDay).compute();
+                List<CarGaps> gaps = new ArrayList<>(left.join());
+                gaps.addAll(right);
+                return gaps;
+            }
+            List<CarGaps> gaps = new ArrayList<>();
+            for (int car = lo; car < hi; car++) {
+                // intervals without dates stand for cars without a policy in range, and are skipped here
+                int[] coverage = PolicyCoverageIndex.toCoverage(batch.intervalsOf(car));
+                List<Span> carGaps = new ArrayList<>(1);
+                long[] uncoveredDays = {0};
+                forEachSpan(coverage, fromDay, toDay, (first, last, covered) -> {
+                    if (!covered) {
+                        carGaps.add(new Span(LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last), false));
+                        uncoveredDays[0] += last - first + 1;
+                    }
+                });
+                if (!carGaps.isEmpty()) {
+                    gaps.add(new CarGaps(batch.carIds[car], uncoveredDays[0], carGaps));
+                }
+            }
+            return gaps;
+        }
+    }
+}
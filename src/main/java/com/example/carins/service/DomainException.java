@@ -0,0 +1,14 @@
+package com.example.carins.service;
+
+/**
+ * Base of the errors services report to their callers, mapped to HTTP responses by the web layer.
+ *
+ * These are expected outcomes such as an unknown id, not bugs, so no stack trace is captured: throwing one
+ * costs an allocation rather than a stack walk, which keeps the error path as cheap as the success path.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyExpiration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Timing wheel of upcoming policy expirations with one slot per day.
+ *
+ * The wheel holds the policies ending on each of the next {@code horizonDays} days. At every midnight the
+ * slot of the day that just ended fires: its policies are reported through
+ * {@link PolicyExpirationScheduler#reportExpired} and the slot is reused for the day entering the horizon,
+ * which is the only query the wheel runs on its own. Policy writes keep the slots current through
+ * {@link PolicyChangedEvent}s. A policy created or updated with an end date before the earliest slot has
+ * missed its day, so it is reported right away through {@link PolicyExpirationScheduler#reportBackdated}.
+ * Bulk imports only fill the slots; imported policies that have already ended are not reported.
+ *
+ * The wheel lives in memory only. On startup the scheduler first catches up on the days missed while the
+ * application was down, then the wheel is seeded from the database.
+ *
+ * Ticks run on the application {@link TaskScheduler}, so they follow the virtual-thread mode. The slots are
+ * guarded by a {@link ReentrantLock} rather than {@code synchronized}, because seeding queries the database
+ * while holding it and a virtual thread blocked inside {@code synchronized} would pin its carrier thread.
+ */
+@Component
+public class ExpirationWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpirationWheel.class);
+
+    private final InsurancePolicyRepository policyRepository;
+    private final PolicyExpirationScheduler expirationScheduler;
+    private final Clock clock;
+    private final int horizonDays;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Slot[] slots;
+    private final Map<Long, Long> dayByPolicy = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Epoch day of the earliest slot, i.e. the next day to fire. Guarded by {@code lock}. */
+    private long firstDay;
+    private boolean started;
+    private volatile boolean stopped;
+    private volatile ScheduledFuture<?> nextTick;
+
+    private static final class Slot {
+        long day = Long.MIN_VALUE;
+        final Map<Long, PolicyExpiration> policies = new HashMap<>();
+
+        void reset(long day) {
+            this.day = day;
+            policies.clear();
+        }
+    }
+
+    public ExpirationWheel(InsurancePolicyRepository policyRepository, PolicyExpirationScheduler expirationScheduler,
+                           Clock clock, TaskScheduler taskScheduler,
+                           @Value("${carins.expiration.horizon-days:3}") int horizonDays) {
+        this.policyRepository = policyRepository;
+        this.expirationScheduler = expirationScheduler;
+        this.clock = clock;
+        this.taskScheduler = taskScheduler;
+        this.horizonDays = horizonDays;
+        this.slots = new Slot[horizonDays];
+        for (int i = 0; i < horizonDays; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        lock.lock();
+        try {
+            expirationScheduler.checkExpiredPolicies();
+
+            firstDay = LocalDate.now(clock).toEpochDay();
+            for (long day = firstDay; day < firstDay + horizonDays; day++) {
+                seed(day);
+            }
+            started = true;
+            logger.info("Expiration wheel seeded with {} policies ending in the next {} days", dayByPolicy.size(), horizonDays);
+        } finally {
+            lock.unlock();
+        }
+        scheduleNextTick();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        ScheduledFuture<?> tick = nextTick;
+        if (tick != null) {
+            tick.cancel(false);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(PolicyChangedEvent event) {
+        if (event.policyId() != null) {
+            PolicyExpiration expiration = policyRepository.findExpirationById(event.policyId()).orElse(null);
+            lock.lock();
+            try {
+                if (!started) {
+                    return;
+                }
+                remove(event.policyId());
+                if (expiration != null && isBackdated(event, expiration)) {
+                    expirationScheduler.reportBackdated(expiration);
+                } else if (expiration != null) {
+                    add(expiration);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            // Several new policies of one car (bulk import): only additions are possible here
+            lock.lock();
+            try {
+                if (!started) {
+                    return;
+                }
+                policyRepository.findExpirationsByCarIdBetween(event.carId(),
+                        LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(firstDay + horizonDays - 1))
+                        .forEach(this::add);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Fires every slot whose day has ended, oldest first.
+     */
+    void tick() {
+        lock.lock();
+        try {
+            long lastEndedDay = LocalDate.now(clock).toEpochDay() - 1;
+            while (firstDay <= lastEndedDay) {
+                Slot slot = slots[index(firstDay)];
+                List<PolicyExpiration> due = slot.day == firstDay ? new ArrayList<>(slot.policies.values()) : List.of();
+                expirationScheduler.reportExpired(LocalDate.ofEpochDay(firstDay), due);
+                for (PolicyExpiration expiration : due) {
+                    dayByPolicy.remove(expiration.policyId());
+                }
+                firstDay++;
+                seed(firstDay + horizonDays - 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return dayByPolicy.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleNextTick() {
+        if (stopped) {
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        nextTick = taskScheduler.schedule(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Expiration wheel tick failed", e);
+            } finally {
+                scheduleNextTick();
+            }
+        }, nextMidnight.toInstant());
+    }
+
+    private void seed(long day) {
+        slots[index(day)].reset(day);
+        for (PolicyExpiration expiration : policyRepository.findExpirationsOn(LocalDate.ofEpochDay(day))) {
+            add(expiration);
+        }
+    }
+
+    private void add(PolicyExpiration expiration) {
+        long day = expiration.endDate().toEpochDay();
+        if (day < firstDay || day >= firstDay + horizonDays) {
+            return;
+        }
+        Slot slot = slots[index(day)];
+        if (slot.day != day) {
+            slot.reset(day);
+        }
+        slot.policies.put(expiration.policyId(), expiration);
+        dayByPolicy.put(expiration.policyId(), day);
+    }
+
+    /**
+     * Whether the write gave the policy an end date whose slot has already fired, while its previous end date,
+     * if any, had not ended yet. When the policy moved to another car only the event of its new car counts,
+     * so it is reported once.
+     */
+    private boolean isBackdated(PolicyChangedEvent event, PolicyExpiration expiration) {
+        return expiration.endDate().toEpochDay() < firstDay
+                && expiration.carId().equals(event.carId())
+                && (event.previousEndDate() == null || event.previousEndDate().toEpochDay() >= firstDay);
+    }
+
+    private void remove(Long policyId) {
+        Long day = dayByPolicy.remove(policyId);
+        if (day != null) {
+            Slot slot = slots[index(day)];
+            if (slot.day == day) {
+                slot.policies.remove(policyId);
+            }
+        }
+    }
+
+    private int index(long day) {
+        return (int) Math.floorMod(day, (long) horizonDays);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.History;
+import com.example.carins.model.HistoryOutbox;
+import com.example.carins.repo.HistoryOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records history events off the request path.
+ *
+ * {@link #record} stores the event in {@code history_outbox} inside the caller's transaction, so it commits
+ * or rolls back together with the change it describes. After commit the event is offered to a bounded
+ * in-memory queue, which a single writer thread drains in batches into {@code history}, deleting the
+ * outbox rows in the same transaction.
+ *
+ * Events that never reach the writer (queue full, crash before the flush) stay in the outbox and are
+ * picked up by a periodic sweep, which also runs right after startup. A batch deletes its outbox rows
+ * before writing and only writes the events whose row it deleted itself, so an event seen by both the
+ * queue and the sweep, or by two instances, is written once.
+ *
+ * Each batch counts as a write to its cars once it commits, for replica reads and for {@link CarVersions},
+ * since that is when their history changes.
+ */
+@Service
+public class HistoryPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryPipeline.class);
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    record PendingEvent(Long outboxId, Long carId, String event, LocalDate date) {}
+
+    private final HistoryOutboxRepository outboxRepository;
+    private final ReplicaReads replicaReads;
+    private final CarVersions carVersions;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+    private final Duration sweepInterval;
+    private final Duration sweepGrace;
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter overflowCounter;
+
+    /** Events committed but not yet written to {@code history} through the queue. */
+    private final AtomicLong pending = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public HistoryPipeline(HistoryOutboxRepository outboxRepository, ReplicaReads replicaReads, CarVersions carVersions,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Clock clock,
+                           MeterRegistry meterRegistry,
+                           @Value("${carins.history.queue-capacity:10000}") int queueCapacity,
+                           @Value("${carins.history.batch-size:500}") int batchSize,
+                           @Value("${carins.history.sweep-interval:30s}") Duration sweepInterval,
+                           @Value("${carins.history.sweep-grace:60s}") Duration sweepGrace) {
+        this.outboxRepository = outboxRepository;
+        this.replicaReads = replicaReads;
+        this.carVersions = carVersions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.sweepInterval = sweepInterval;
+        this.sweepGrace = sweepGrace;
+
+        Gauge.builder("carins.history.queue.depth", queue, BlockingQueue::size)
+                .description("History events waiting for the writer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("carins.history.flush")
+                .description("Time to write one batch of history events")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("carins.history.flush.size")
+                .description("History events written per batch")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("carins.history.queue.overflow")
+                .description("History events left to the outbox sweep because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a history event as part of the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long carId, String event, LocalDate date) {
+        HistoryOutbox outbox = outboxRepository.save(new HistoryOutbox(carId, event, date, clock.instant()));
+        PendingEvent pendingEvent = new PendingEvent(outbox.getId(), carId, event, date);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (queue.offer(pendingEvent)) {
+                    pending.incrementAndGet();
+                } else {
+                    overflowCounter.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Waits until every event queued so far has been written.
+     *
+     * @return {@code false} if the timeout elapsed first
+     */
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWriter() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        Duration grace = Duration.ZERO; // nothing is queued before startup, so everything in the outbox is left over
+        long nextSweep = System.nanoTime();
+
+        // Keep draining after stop() until the queue is empty.
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    try {
+                        write(batch);
+                    } finally {
+                        pending.addAndGet(-batch.size());
+                        batch.clear();
+                    }
+                }
+                if (running && System.nanoTime() - nextSweep >= 0) {
+                    sweep(grace);
+                    grace = sweepGrace;
+                    nextSweep = System.nanoTime() + sweepInterval.toNanos();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Writing history failed, the events stay in the outbox for the next sweep", e);
+            }
+        }
+    }
+
+    private void sweep(Duration grace) {
+        int recovered = 0;
+        List<HistoryOutbox> rows;
+        do {
+            rows = outboxRepository.findByCreatedAtBeforeOrderByIdAsc(clock.instant().minus(grace), Limit.of(batchSize));
+            List<PendingEvent> batch = new ArrayList<>(rows.size());
+            for (HistoryOutbox row : rows) {
+                batch.add(new PendingEvent(row.getId(), row.getCarId(), row.getEvent(), row.getDate()));
+            }
+            recovered += write(batch);
+        } while (rows.size() == batchSize);
+
+        if (recovered > 0) {
+            logger.info("Recovered {} history events from the outbox", recovered);
+        }
+    }
+
+    /**
+     * Moves a batch from the outbox into {@code history}, skipping events another pass already took.
+     */
+    private int write(List<PendingEvent> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        Integer written = transactionTemplate.execute(status -> {
+            // Deleting claims the rows: a pass that deleted them first holds them until it commits, and
+            // a row it already deleted counts 0 here
+            int[] deleted = jdbcTemplate.batchUpdate("delete from history_outbox where id = ?",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setLong(1, batch.get(i).outboxId());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+            int claimed = 0;
+            Set<Long> carIds = new HashSet<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (deleted[i] > 0) {
+                    PendingEvent event = batch.get(i);
+                    Car car = entityManager.getReference(Car.class, event.carId());
+                    entityManager.persist(new History(car, event.event(), event.date()));
+                    carIds.add(event.carId());
+                    claimed++;
+                }
+            }
+            if (claimed > 0) {
+                replicaReads.recordWrites(carIds);
+                carVersions.bumpCars(carIds);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return claimed;
+        });
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        flushSize.record(written);
+        return written;
+    }
+}
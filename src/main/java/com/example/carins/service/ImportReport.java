@@ -0,0 +1,19 @@
+package com.example.carins.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param errors the rejected rows, at most {@link ImportTally#MAX_ERRORS} of them
+ * @param errorsTruncated whether more rows were rejected than listed in {@code errors}
+ */
+public record ImportReport(long received, long imported, long rejected, long durationMs, double rowsPerSecond,
+                           List<RejectedRow> errors, boolean errorsTruncated) {
+
+    /**
+     * @param row 1-based position of the row in the input
+     * @param field the field that caused the error, {@code null} if the row as a whole was rejected
+     */
+    public record RejectedRow(long row, String field, String message) {}
+}
@@ -0,0 +1,41 @@
+package com.example.carins.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running totals of a bulk import. Keeps at most {@link #MAX_ERRORS} rejected rows so a bad file cannot
+ * blow up the response.
+ */
+class ImportTally {
+
+    static final int MAX_ERRORS = 1000;
+
+    private final long startedNanos = System.nanoTime();
+    private final List<ImportReport.RejectedRow> errors = new ArrayList<>();
+    private long received;
+    private long imported;
+    private long rejected;
+
+    long nextRow() {
+        return ++received;
+    }
+
+    void imported(int rows) {
+        imported += rows;
+    }
+
+    void reject(long row, String field, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportReport.RejectedRow(row, field, message));
+        }
+    }
+
+    ImportReport toReport() {
+        long durationNanos = Math.max(System.nanoTime() - startedNanos, 1);
+        double rowsPerSecond = Math.round(imported * 1_000_000_000.0 / durationNanos * 10) / 10.0;
+        return new ImportReport(received, imported, rejected, durationNanos / 1_000_000, rowsPerSecond,
+                List.copyOf(errors), rejected > errors.size());
+    }
+}
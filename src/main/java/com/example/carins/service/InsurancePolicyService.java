@@ -4,9 +4,11 @@ import com.example.carins.model.Car;
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.repo.CarRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDate;
 
 @Service
@@ -14,34 +16,70 @@ public class InsurancePolicyService {
 
     private final InsurancePolicyRepository policyRepository;
     private final CarRepository carRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HistoryPipeline historyPipeline;
+    private final Clock clock;
 
-    public InsurancePolicyService(InsurancePolicyRepository policyRepository, CarRepository carRepository) {
+    public InsurancePolicyService(InsurancePolicyRepository policyRepository, CarRepository carRepository,
+                                  ApplicationEventPublisher eventPublisher, HistoryPipeline historyPipeline,
+                                  Clock clock) {
         this.policyRepository = policyRepository;
         this.carRepository = carRepository;
+        this.eventPublisher = eventPublisher;
+        this.historyPipeline = historyPipeline;
+        this.clock = clock;
     }
 
-    public void createInsurancePolicy(Long carId, String provider, LocalDate startDate, LocalDate endDate) {
+    @Transactional
+    public InsurancePolicy createInsurancePolicy(Long carId, String provider, LocalDate startDate, LocalDate endDate) {
         validateEndDate(endDate);
-        
-        carRepository.findById(carId)
-                .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
+
+        Car car = carRepository.findById(carId)
+                .orElseThrow(() -> NotFoundException.car(carId));
+
+        InsurancePolicy savedPolicy = policyRepository.save(new InsurancePolicy(car, provider, startDate, endDate));
+        eventPublisher.publishEvent(new PolicyChangedEvent(car.getId(), savedPolicy.getId(), null));
+        historyPipeline.record(car.getId(), describe("created", savedPolicy), LocalDate.now(clock));
+
+        return savedPolicy;
     }
 
-    public void updateInsurancePolicy(Long policyId, Long carId, String provider, LocalDate startDate, LocalDate endDate) {
+    @Transactional
+    public InsurancePolicy updateInsurancePolicy(Long policyId, Long carId, String provider, LocalDate startDate, LocalDate endDate) {
         validateEndDate(endDate);
-        
+
         InsurancePolicy existingPolicy = policyRepository.findById(policyId)
-                .orElseThrow(() -> new IllegalArgumentException("Insurance policy not found with id: " + policyId));
-        
-        if (carId != null && !carId.equals(existingPolicy.getCar().getId())) {
-            carRepository.findById(carId)
-                    .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
+                .orElseThrow(() -> NotFoundException.policy(policyId));
+
+        Long previousCarId = existingPolicy.getCar().getId();
+        LocalDate previousEndDate = existingPolicy.getEndDate();
+        if (carId != null && !carId.equals(previousCarId)) {
+            Car car = carRepository.findById(carId)
+                    .orElseThrow(() -> NotFoundException.car(carId));
+            existingPolicy.setCar(car);
+            eventPublisher.publishEvent(new PolicyChangedEvent(previousCarId, policyId, previousEndDate));
         }
+
+        existingPolicy.setProvider(provider);
+        existingPolicy.setStartDate(startDate);
+        existingPolicy.setEndDate(endDate);
+        eventPublisher.publishEvent(new PolicyChangedEvent(existingPolicy.getCar().getId(), policyId, previousEndDate));
+        historyPipeline.record(existingPolicy.getCar().getId(), describe("updated", existingPolicy), LocalDate.now(clock));
+
+        return existingPolicy;
+    }
+
+    private static String describe(String action, InsurancePolicy policy) {
+        return describe(action, policy.getId(), policy.getProvider(), policy.getStartDate(), policy.getEndDate());
+    }
+
+    static String describe(String action, Long policyId, String provider, LocalDate startDate, LocalDate endDate) {
+        return "Insurance policy " + policyId + " " + action + ": " + provider + ", " + startDate + " to " + endDate;
     }
 
     private void validateEndDate(LocalDate endDate) {
         if (endDate == null) {
-            throw new IllegalArgumentException("Insurance policy must have an end date. Open-ended policies are not allowed.");
+            throw new InvalidRequestException("Insurance policy must have an end date. Open-ended policies are not allowed.", "endDate");
         }
     }
 }
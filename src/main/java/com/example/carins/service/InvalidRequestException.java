@@ -0,0 +1,18 @@
+package com.example.carins.service;
+
+/**
+ * A request breaks a business rule, optionally pinned to the offending field.
+ */
+public class InvalidRequestException extends DomainException {
+
+    private final String field;
+
+    public InvalidRequestException(String message, String field) {
+        super(message);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
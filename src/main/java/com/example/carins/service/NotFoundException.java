@@ -0,0 +1,30 @@
+package com.example.carins.service;
+
+/**
+ * An entity referenced by id does not exist.
+ */
+public class NotFoundException extends DomainException {
+
+    private final Long id;
+
+    private NotFoundException(String message, Long id) {
+        super(message);
+        this.id = id;
+    }
+
+    public static NotFoundException car(Long carId) {
+        return new NotFoundException("Car not found", carId);
+    }
+
+    public static NotFoundException owner(Long ownerId) {
+        return new NotFoundException("Owner not found", ownerId);
+    }
+
+    public static NotFoundException policy(Long policyId) {
+        return new NotFoundException("Insurance policy not found", policyId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
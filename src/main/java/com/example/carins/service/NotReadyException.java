@@ -0,0 +1,11 @@
+package com.example.carins.service;
+
+/**
+ * A view the request depends on is still being built after startup; the request can be retried shortly.
+ */
+public class NotReadyException extends DomainException {
+
+    public NotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.carins.service;
+
+import com.example.carins.model.ClaimSummary;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.OwnerCar;
+import com.example.carins.repo.OwnerPolicy;
+import com.example.carins.repo.OwnerRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owners with their cars, the policies active today and the claim totals of each car.
+ *
+ * Owner has no mapping to its cars, so rather than walking associations car by car, a portfolio is read
+ * with one query per kind of row, all keyed by owner id: the owners, their cars, the policies of those cars
+ * active today and the claim rollups (see {@link ClaimRollupService}). A single portfolio and a page of them
+ * both take four statements, however many cars the owners have.
+ */
+@Service
+public class OwnerPortfolioService {
+
+    /**
+     * @param date the day the active policies were taken on
+     * @param uninsuredCars cars without an active policy on that day
+     */
+    public record Portfolio(Long ownerId, String name, String email, LocalDate date, int uninsuredCars,
+                            long claimCount, long claimTotal, List<PortfolioCar> cars) {}
+
+    /**
+     * @param lastClaimDate {@code null} when the car has no claims
+     */
+    public record PortfolioCar(Long carId, String vin, String make, String model, int yearOfManufacture,
+                               List<OwnerPolicy> activePolicies, long claimCount, long claimTotal,
+                               LocalDate lastClaimDate) {}
+
+    private final OwnerRepository ownerRepository;
+    private final ReplicaReads replicaReads;
+    private final Clock clock;
+
+    public OwnerPortfolioService(OwnerRepository ownerRepository, ReplicaReads replicaReads, Clock clock) {
+        this.ownerRepository = ownerRepository;
+        this.replicaReads = replicaReads;
+        this.clock = clock;
+    }
+
+    @Transactional(readOnly = true)
+    public Portfolio getPortfolio(Long ownerId) {
+        replicaReads.allow();
+        Owner owner = ownerRepository.findById(ownerId).orElseThrow(() -> NotFoundException.owner(ownerId));
+        return toPortfolios(List.of(owner)).get(0);
+    }
+
+    /**
+     * Keyset page of portfolios, ordered by owner id.
+     *
+     * @param afterId id of the last owner of the previous page, {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<Portfolio> getPortfolios(Long afterId, int size) {
+        replicaReads.allow();
+        List<Owner> owners = ownerRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : Long.MIN_VALUE, Limit.of(size));
+        return owners.isEmpty() ? List.of() : toPortfolios(owners);
+    }
+
+    private List<Portfolio> toPortfolios(List<Owner> owners) {
+        LocalDate today = LocalDate.now(clock);
+        List<Long> ownerIds = owners.stream().map(Owner::getId).toList();
+
+        Map<Long, List<OwnerPolicy>> policiesByCar = new HashMap<>();
+        for (OwnerPolicy policy : ownerRepository.findActivePoliciesByOwnerIdIn(ownerIds, today)) {
+            policiesByCar.computeIfAbsent(policy.carId(), id -> new ArrayList<>()).add(policy);
+        }
+        Map<Long, ClaimSummary> claimsByCar = new HashMap<>();
+        for (ClaimSummary summary : ownerRepository.findClaimSummariesByOwnerIdIn(ownerIds)) {
+            claimsByCar.put(summary.getCarId(), summary);
+        }
+        Map<Long, List<PortfolioCar>> carsByOwner = new HashMap<>();
+        for (OwnerCar car : ownerRepository.findCarsByOwnerIdIn(ownerIds)) {
+            ClaimSummary claims = claimsByCar.get(car.carId());
+            carsByOwner.computeIfAbsent(car.ownerId(), id -> new ArrayList<>()).add(new PortfolioCar(
+                    car.carId(), car.vin(), car.make(), car.model(), car.yearOfManufacture(),
+                    policiesByCar.getOrDefault(car.carId(), List.of()),
+                    claims != null ? claims.getClaimCount() : 0,
+                    claims != null ? claims.getTotalAmount() : 0,
+                    claims != null ? claims.getLastClaimDate() : null));
+        }
+
+        List<Portfolio> portfolios = new ArrayList<>(owners.size());
+        for (Owner owner : owners) {
+            List<PortfolioCar> cars = carsByOwner.getOrDefault(owner.getId(), List.of());
+            int uninsuredCars = 0;
+            long claimCount = 0;
+            long claimTotal = 0;
+            for (PortfolioCar car : cars) {
+                if (car.activePolicies().isEmpty()) {
+                    uninsuredCars++;
+                }
+                claimCount += car.claimCount();
+                claimTotal += car.claimTotal();
+            }
+            portfolios.add(new Portfolio(owner.getId(), owner.getName(), owner.getEmail(), today,
+                    uninsuredCars, claimCount, claimTotal, cars));
+        }
+        return portfolios;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.carins.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link InsurancePolicyService} whenever the policies of a car are written.
+ * Listeners that keep derived views of the policy table refresh the affected car from it.
+ *
+ * @param policyId the policy that changed, or {@code null} when several policies of the car changed at once
+ * @param previousEndDate end date of the policy before the write, or {@code null} for new policies
+ */
+public record PolicyChangedEvent(Long carId, Long policyId, LocalDate previousEndDate) {}
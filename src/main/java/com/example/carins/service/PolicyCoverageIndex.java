@@ -0,0 +1,226 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of insurance coverage per car.
+ *
+ * Each car maps to a flat int array {@code [start0, end0, start1, end1, ...]} of epoch days, sorted by start
+ * and merged so that no two intervals overlap or touch. A validity check is then a binary search over
+ * the array: no allocation and no database round-trip.
+ *
+ * The index is rebuilt from the database once the application is ready and kept current by refreshing
+ * a car from the database after every committed {@link PolicyChangedEvent}. Each read of the database takes
+ * a version first, and a car's coverage is only replaced by a read with a later version: two refreshes of a
+ * car may finish in either order, but the one that started reading last wins. Every change is passed on to
+ * {@link CoverageBitmaps}, the fleet-wide view of the same coverage. Cars the index does not know
+ * yet (e.g. before the initial build completes) return {@code null} so callers can fall back to the database.
+ */
+@Component
+public class PolicyCoverageIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyCoverageIndex.class);
+
+    static final int[] NO_COVERAGE = new int[0];
+
+    private record Entry(long version, int[] coverage) {}
+
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final CoverageBitmaps coverageBitmaps;
+    private final TransactionTemplate readOnlyTx;
+
+    private final Map<Long, Entry> coverageByCar = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public PolicyCoverageIndex(CarRepository carRepository, InsurancePolicyRepository policyRepository,
+                               CoverageBitmaps coverageBitmaps, PlatformTransactionManager transactionManager) {
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.coverageBitmaps = coverageBitmaps;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        long version = versions.incrementAndGet();
+        readOnlyTx.executeWithoutResult(status -> {
+            // Entries written by refresh() while the build is running are newer than this snapshot, so keep them.
+            try (Stream<PolicyInterval> intervals = policyRepository.streamAllIntervals()) {
+                Iterator<PolicyInterval> it = intervals.iterator();
+                List<PolicyInterval> carIntervals = new ArrayList<>();
+                while (it.hasNext()) {
+                    PolicyInterval interval = it.next();
+                    if (!carIntervals.isEmpty() && !carIntervals.get(0).carId().equals(interval.carId())) {
+                        storeIfAbsent(carIntervals.get(0).carId(), version, toCoverage(carIntervals));
+                        carIntervals.clear();
+                    }
+                    carIntervals.add(interval);
+                }
+                if (!carIntervals.isEmpty()) {
+                    storeIfAbsent(carIntervals.get(0).carId(), version, toCoverage(carIntervals));
+                }
+            }
+            try (Stream<Long> carIds = carRepository.streamAllIds()) {
+                carIds.forEach(carId -> storeIfAbsent(carId, version, NO_COVERAGE));
+            }
+        });
+        coverageBitmaps.markReady();
+        logger.info("Coverage index built for {} cars in {} ms", coverageByCar.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyChanged(PolicyChangedEvent event) {
+        refresh(event.carId());
+    }
+
+    /**
+     * Reloads the coverage of one car from the database. The caller must know the car exists.
+     *
+     * @return the coverage now in the index, which is newer than the one read if a later refresh got there first
+     */
+    public int[] refresh(Long carId) {
+        long version = versions.incrementAndGet();
+        return store(carId, version, toCoverage(policyRepository.findIntervalsByCarId(carId)));
+    }
+
+    /**
+     * Loads several cars into the index with one query for the cars and one for their policies.
+     * Ids of cars that do not exist are left out of the index.
+     */
+    public void refreshAll(Collection<Long> carIds) {
+        if (carIds.isEmpty()) {
+            return;
+        }
+        long version = versions.incrementAndGet();
+        Map<Long, List<PolicyInterval>> intervalsByCar = new HashMap<>();
+        for (Long carId : carRepository.findExistingIds(carIds)) {
+            intervalsByCar.put(carId, new ArrayList<>());
+        }
+        if (intervalsByCar.isEmpty()) {
+            return;
+        }
+        for (PolicyInterval interval : policyRepository.findIntervalsByCarIdIn(intervalsByCar.keySet())) {
+            intervalsByCar.get(interval.carId()).add(interval);
+        }
+        intervalsByCar.forEach((carId, intervals) -> store(carId, version, toCoverage(intervals)));
+    }
+
+    /**
+     * @return the merged coverage of the car, or {@code null} when the car is not indexed
+     */
+    public int[] coverage(Long carId) {
+        Entry entry = coverageByCar.get(carId);
+        return entry != null ? entry.coverage() : null;
+    }
+
+    public void evict(Long carId) {
+        coverageByCar.computeIfPresent(carId, (id, previous) -> {
+            coverageBitmaps.replace(id, previous.coverage(), null);
+            return null;
+        });
+    }
+
+    private int[] store(Long carId, long version, int[] coverage) {
+        // the bitmaps are updated while the map entry is locked, so concurrent writes of a car reach both in the same order
+        return coverageByCar.compute(carId, (id, previous) -> {
+            if (previous != null && previous.version() > version) {
+                return previous;
+            }
+            coverageBitmaps.replace(id, previous != null ? previous.coverage() : null, coverage);
+            return new Entry(version, coverage);
+        }).coverage();
+    }
+
+    private void storeIfAbsent(Long carId, long version, int[] coverage) {
+        coverageByCar.computeIfAbsent(carId, id -> {
+            coverageBitmaps.replace(id, null, coverage);
+            return new Entry(version, coverage);
+        });
+    }
+
+    public static boolean covers(int[] coverage, int epochDay) {
+        // Binary search for the last interval starting on or before the day.
+        int lo = 0;
+        int hi = (coverage.length >>> 1) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (coverage[mid << 1] <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi >= 0 && coverage[(hi << 1) + 1] >= epochDay;
+    }
+
+    static int[] toCoverage(List<PolicyInterval> intervals) {
+        if (intervals.isEmpty()) {
+            return NO_COVERAGE;
+        }
+        long[] packed = new long[intervals.size()];
+        int count = 0;
+        for (PolicyInterval interval : intervals) {
+            if (interval.startDate() == null) {
+                continue; // never active, see InsurancePolicyRepository.existsActiveOnDate
+            }
+            int start = toEpochDay(interval.startDate());
+            int end = interval.endDate() == null ? Integer.MAX_VALUE : toEpochDay(interval.endDate());
+            if (start <= end) {
+                packed[count++] = ((long) start << 32) | (end & 0xFFFFFFFFL);
+            }
+        }
+        return merge(packed, count);
+    }
+
+    /**
+     * Merges {@code (start << 32 | end)} intervals into the flat sorted array format of the index.
+     */
+    static int[] merge(long[] packed, int count) {
+        if (count == 0) {
+            return NO_COVERAGE;
+        }
+        Arrays.sort(packed, 0, count);
+        int[] merged = new int[count << 1];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            int start = (int) (packed[i] >> 32);
+            int end = (int) packed[i];
+            if (size > 0 && (long) start <= (long) merged[size - 1] + 1) {
+                merged[size - 1] = Math.max(merged[size - 1], end);
+            } else {
+                merged[size++] = start;
+                merged[size++] = end;
+            }
+        }
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
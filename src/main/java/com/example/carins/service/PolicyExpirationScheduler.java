@@ -1,46 +1,138 @@
 package com.example.carins.service;
 
-import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.JobWatermark;
 import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.JobWatermarkRepository;
+import com.example.carins.repo.PolicyExpiration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 
+/**
+ * Logs each policy once after it expires. A policy expires at the midnight that ends its end date.
+ *
+ * Progress is kept as a persisted {@code (endDate, policyId)} watermark, so nothing is logged twice across
+ * restarts. Upcoming expirations are reported at the day boundary by {@link ExpirationWheel};
+ * {@link #checkExpiredPolicies()} catches up on the days the application was down, reading id projections
+ * in fixed-size chunks and saving the watermark after each chunk, so memory stays bounded.
+ */
 @Service
 public class PolicyExpirationScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(PolicyExpirationScheduler.class);
-    
+
+    static final String JOB_NAME = "policy-expiration";
+
     private final InsurancePolicyRepository policyRepository;
-    
-    private final Set<Long> loggedExpiredPolicies = new HashSet<>();
+    private final JobWatermarkRepository watermarkRepository;
+    private final Clock clock;
+    private final int chunkSize;
+    private final int initialLookbackDays;
+    private final Timer catchUpTimer;
+    private final Timer dayTimer;
 
-    public PolicyExpirationScheduler(InsurancePolicyRepository policyRepository) {
+    public PolicyExpirationScheduler(InsurancePolicyRepository policyRepository, JobWatermarkRepository watermarkRepository,
+                                     Clock clock, MeterRegistry meterRegistry,
+                                     @Value("${carins.expiration.chunk-size:500}") int chunkSize,
+                                     @Value("${carins.expiration.initial-lookback-days:1}") int initialLookbackDays) {
         this.policyRepository = policyRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.initialLookbackDays = initialLookbackDays;
+        this.catchUpTimer = Timer.builder("carins.expiration.run").tag("trigger", "catch-up")
+                .description("Duration of one expiration run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.dayTimer = Timer.builder("carins.expiration.run").tag("trigger", "day-boundary")
+                .description("Duration of one expiration run")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    @Scheduled(fixedRate = 600000) // 10 minutes in milliseconds
     public void checkExpiredPolicies() {
-        LocalDate today = LocalDate.now();
-        
-        List<InsurancePolicy> recentlyExpiredPolicies = policyRepository.findByEndDate(today);
-                
-        for (InsurancePolicy policy : recentlyExpiredPolicies) {
-            if (!loggedExpiredPolicies.contains(policy.getId())) {
-                logger.info("Policy {} for car {} expired on {}", 
-                    policy.getId(), 
-                    policy.getCar().getId(), 
-                    policy.getEndDate());
-                
-                loggedExpiredPolicies.add(policy.getId());
+        catchUpTimer.record(() -> {
+            LocalDate lastExpiredDay = LocalDate.now(clock).minusDays(1);
+
+            JobWatermark watermark = watermarkRepository.findById(JOB_NAME)
+                    .orElseGet(() -> new JobWatermark(JOB_NAME, lastExpiredDay.minusDays(initialLookbackDays), JobWatermark.END_OF_DAY));
+            catchUp(watermark, lastExpiredDay);
+        });
+    }
+
+    /**
+     * Reports the policies that expired at the end of {@code day}, unless the watermark already covers it.
+     */
+    public void reportExpired(LocalDate day, Collection<PolicyExpiration> expirations) {
+        dayTimer.record(() -> report(day, expirations));
+    }
+
+    /**
+     * Reports a policy whose end date was moved to a day the watermark already covers. Such a policy is
+     * behind the watermark, so neither the day boundary nor the catch-up would ever report it.
+     */
+    public void reportBackdated(PolicyExpiration expiration) {
+        log(expiration);
+    }
+
+    private void report(LocalDate day, Collection<PolicyExpiration> expirations) {
+        JobWatermark watermark = watermarkRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobWatermark(JOB_NAME, day.minusDays(1), JobWatermark.END_OF_DAY));
+        if (watermark.covers(day)) {
+            return;
+        }
+        catchUp(watermark, day.minusDays(1));
+
+        List<PolicyExpiration> sorted = new ArrayList<>(expirations);
+        sorted.sort(Comparator.comparing(PolicyExpiration::policyId));
+        for (PolicyExpiration expiration : sorted) {
+            if (expiration.policyId() > watermark.getCursorId() || watermark.getCursorDate().isBefore(day)) {
+                log(expiration);
             }
         }
+
+        watermark.advanceTo(day, JobWatermark.END_OF_DAY);
+        watermarkRepository.save(watermark);
+    }
+
+    private void catchUp(JobWatermark watermark, LocalDate lastExpiredDay) {
+        if (watermark.covers(lastExpiredDay)) {
+            return;
+        }
+
+        List<PolicyExpiration> chunk;
+        do {
+            chunk = policyRepository.findExpirationsAfter(
+                    watermark.getCursorDate(), watermark.getCursorId(), lastExpiredDay, Limit.of(chunkSize));
+            for (PolicyExpiration expiration : chunk) {
+                log(expiration);
+            }
+            if (!chunk.isEmpty()) {
+                PolicyExpiration last = chunk.get(chunk.size() - 1);
+                watermark.advanceTo(last.endDate(), last.policyId());
+                watermarkRepository.save(watermark);
+            }
+        } while (chunk.size() == chunkSize);
+
+        watermark.advanceTo(lastExpiredDay, JobWatermark.END_OF_DAY);
+        watermarkRepository.save(watermark);
+    }
+
+    private void log(PolicyExpiration expiration) {
+        logger.info("Policy {} for car {} expired on {}",
+            expiration.policyId(),
+            expiration.carId(),
+            expiration.endDate());
     }
 }
@@ -0,0 +1,25 @@
+package com.example.carins.service;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * One policy of a bulk policy import, as read from the input by {@link PolicyImportService}; CSV input has the
+ * header vin,provider,startDate,endDate.
+ */
+public record PolicyImportRow(
+    @NotBlank(message = "VIN is required")
+    String vin,
+
+    @Size(max = 255, message = "Provider must be at most 255 characters")
+    String provider,
+
+    @NotNull(message = "Start date is required")
+    LocalDate startDate,
+
+    @NotNull(message = "End date is required. Open-ended policies are not allowed.")
+    LocalDate endDate
+) {}
@@ -0,0 +1,311 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.CarVin;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyInterval;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports insurance policies in bulk from CSV with a header row, a JSON array or newline-delimited JSON.
+ *
+ * The input is read one row at a time and processed in chunks, each in one transaction: the cars of the
+ * chunk are resolved by VIN with one set-based query and their existing policies loaded with another. Rows
+ * that overlap a policy of their car are then found by sorting the chunk per car by start date and sweeping
+ * it once against the existing coverage and the rows accepted before it. Of two overlapping rows, the one
+ * starting later is rejected. Earlier chunks are committed by then, so they count as existing policies.
+ *
+ * InsurancePolicy ids come from an identity column, which keeps Hibernate from batching its inserts, so the
+ * accepted policies are written with one JDBC batch per chunk. Hibernate does not see these writes, so the
+ * cached policy validity checks are evicted once the chunk commits.
+ */
+@Service
+public class PolicyImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolicyImportService.class);
+
+    private static final String INSERT_POLICY =
+            "insert into insurancepolicy (car_id, provider, start_date, end_date) values (?, ?, ?, ?)";
+
+    private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final HistoryPipeline historyPipeline;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final Clock clock;
+    private final int chunkSize;
+
+    public PolicyImportService(CarRepository carRepository, InsurancePolicyRepository policyRepository,
+                               HistoryPipeline historyPipeline, ApplicationEventPublisher eventPublisher,
+                               JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Validator validator,
+                               PlatformTransactionManager transactionManager, EntityManagerFactory entityManagerFactory,
+                               Clock clock,
+                               @Value("${carins.policies.import.chunk-size:1000}") int chunkSize) {
+        this.carRepository = carRepository;
+        this.policyRepository = policyRepository;
+        this.historyPipeline = historyPipeline;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportReport importCsv(InputStream input) throws IOException {
+        return importPolicies(csvMapper.readerFor(JsonNode.class).with(CsvSchema.emptySchema().withHeader()).readValues(input));
+    }
+
+    public ImportReport importJson(InputStream input) throws IOException {
+        return importPolicies(objectMapper.readerFor(JsonNode.class).readValues(input));
+    }
+
+    private ImportReport importPolicies(MappingIterator<JsonNode> input) throws IOException {
+        ImportTally tally = new ImportTally();
+        List<PolicyImportRow> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<JsonNode> nodes = input) {
+            while (nodes.hasNextValue()) {
+                JsonNode node = nodes.nextValue();
+                long row = tally.nextRow();
+                PolicyImportRow policy = toRow(node, row, tally);
+                if (policy != null) {
+                    chunk.add(policy);
+                    chunkRows.add(row);
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, chunkRows, tally);
+                }
+            }
+        }
+        writeChunk(chunk, chunkRows, tally);
+
+        ImportReport result = tally.toReport();
+        logger.info("Policy import: {} rows, {} imported, {} rejected in {} ms ({} rows/s)",
+                result.received(), result.imported(), result.rejected(), result.durationMs(), result.rowsPerSecond());
+        return result;
+    }
+
+    private PolicyImportRow toRow(JsonNode node, long row, ImportTally tally) {
+        PolicyImportRow policy;
+        try {
+            policy = objectMapper.treeToValue(node, PolicyImportRow.class);
+        } catch (IOException e) {
+            tally.reject(row, null, "Malformed row");
+            return null;
+        }
+        Set<ConstraintViolation<PolicyImportRow>> violations = validator.validate(policy);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<PolicyImportRow> violation = violations.iterator().next();
+            tally.reject(row, violation.getPropertyPath().toString(), violation.getMessage());
+            return null;
+        }
+        if (policy.endDate().isBefore(policy.startDate())) {
+            tally.reject(row, "endDate", "End date must not be before start date");
+            return null;
+        }
+        return policy;
+    }
+
+    private void writeChunk(List<PolicyImportRow> chunk, List<Long> chunkRows, ImportTally tally) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Integer imported = transactionTemplate.execute(status -> {
+            Set<String> vins = new HashSet<>();
+            for (PolicyImportRow policy : chunk) {
+                vins.add(policy.vin());
+            }
+            Map<String, Long> carIdByVin = new HashMap<>();
+            for (CarVin car : carRepository.findIdsByVinIn(vins)) {
+                carIdByVin.put(car.vin(), car.carId());
+            }
+
+            List<Candidate> candidates = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Long carId = carIdByVin.get(chunk.get(i).vin());
+                if (carId != null) {
+                    candidates.add(new Candidate(chunkRows.get(i), carId, chunk.get(i)));
+                } else {
+                    tally.reject(chunkRows.get(i), "vin", "Car not found");
+                }
+            }
+            if (candidates.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, List<PolicyInterval>> existingByCar = new HashMap<>();
+            for (PolicyInterval interval : policyRepository.findIntervalsByCarIdIn(new HashSet<>(carIdByVin.values()))) {
+                existingByCar.computeIfAbsent(interval.carId(), carId -> new ArrayList<>()).add(interval);
+            }
+            List<Candidate> accepted = sweep(candidates, existingByCar, tally);
+            insert(accepted);
+            return accepted.size();
+        });
+        tally.imported(imported);
+
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    /**
+     * @return the candidates that overlap neither the existing policies of their car nor an accepted
+     *         candidate of the same car, in order of car and start date
+     */
+    private static List<Candidate> sweep(List<Candidate> candidates, Map<Long, List<PolicyInterval>> existingByCar,
+                                         ImportTally tally) {
+        candidates.sort(Comparator.comparing(Candidate::carId)
+                .thenComparing(candidate -> candidate.policy().startDate())
+                .thenComparingLong(Candidate::row));
+
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        List<PolicyInterval> coverage = List.of();
+        int next = 0;
+        Long carId = null;
+        Candidate last = null;
+        for (Candidate candidate : candidates) {
+            if (!candidate.carId().equals(carId)) {
+                carId = candidate.carId();
+                coverage = merge(existingByCar.getOrDefault(carId, List.of()));
+                next = 0;
+                last = null;
+            }
+            LocalDate start = candidate.policy().startDate();
+            // start dates only grow within a car, so coverage that ended before this row did for all later rows
+            while (next < coverage.size() && coverage.get(next).endDate().isBefore(start)) {
+                next++;
+            }
+            if (next < coverage.size() && !coverage.get(next).startDate().isAfter(candidate.policy().endDate())) {
+                PolicyInterval existing = coverage.get(next);
+                tally.reject(candidate.row(), null, "Overlaps existing coverage of the car from "
+                        + existing.startDate() + " to " + existing.endDate());
+            } else if (last != null && !start.isAfter(last.policy().endDate())) {
+                // accepted rows of a car do not overlap, so the last one ends latest
+                tally.reject(candidate.row(), null, "Overlaps row " + last.row());
+            } else {
+                accepted.add(candidate);
+                last = candidate;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * @return the existing policies of one car merged into non-overlapping intervals, sorted by start
+     */
+    private static List<PolicyInterval> merge(List<PolicyInterval> policies) {
+        List<PolicyInterval> sorted = new ArrayList<>(policies);
+        sorted.sort(Comparator.comparing(PolicyImportService::startOf));
+        List<PolicyInterval> merged = new ArrayList<>(sorted.size());
+        for (PolicyInterval policy : sorted) {
+            PolicyInterval previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && !startOf(policy).isAfter(previous.endDate())) {
+                if (policy.endDate().isAfter(previous.endDate())) {
+                    merged.set(merged.size() - 1, new PolicyInterval(policy.carId(), previous.startDate(), policy.endDate()));
+                }
+            } else {
+                merged.add(new PolicyInterval(policy.carId(), startOf(policy), policy.endDate()));
+            }
+        }
+        return merged;
+    }
+
+    private static LocalDate startOf(PolicyInterval policy) {
+        return policy.startDate() != null ? policy.startDate() : LocalDate.MIN;
+    }
+
+    private void insert(List<Candidate> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_POLICY, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PolicyImportRow policy = accepted.get(i).policy();
+                        ps.setLong(1, accepted.get(i).carId());
+                        ps.setString(2, policy.provider());
+                        ps.setObject(3, policy.startDate());
+                        ps.setObject(4, policy.endDate());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return accepted.size();
+                    }
+                }, keys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sessionFactory.getCache().evictQueryRegion(InsurancePolicyRepository.ACTIVE_ON_DATE_REGION);
+            }
+        });
+
+        List<Map<String, Object>> generatedIds = keys.getKeyList();
+        Set<Long> carIds = new LinkedHashSet<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            Candidate candidate = accepted.get(i);
+            PolicyImportRow policy = candidate.policy();
+            Long policyId = ((Number) generatedIds.get(i).values().iterator().next()).longValue();
+            historyPipeline.record(candidate.carId(), InsurancePolicyService.describe("created", policyId,
+                    policy.provider(), policy.startDate(), policy.endDate()), LocalDate.now(clock));
+            carIds.add(candidate.carId());
+        }
+        for (Long carId : carIds) {
+            eventPublisher.publishEvent(new PolicyChangedEvent(carId, null, null));
+        }
+    }
+
+    private record Candidate(long row, Long carId, PolicyImportRow policy) {}
+}
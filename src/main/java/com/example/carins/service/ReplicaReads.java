@@ -0,0 +1,152 @@
+package com.example.carins.service;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_CACHE_STORE_MODE;
+
+/**
+ * Decides which read-only transactions may run on a read replica, and how far behind that replica may be.
+ *
+ * Replicas are opt-in: a read-only transaction only leaves the primary after calling {@link #allow} or
+ * {@link #allowForCar} before its first query, which is when its connection is chosen. Everything else,
+ * including the loads of the in-memory caches, keeps reading the primary, so a cache never captures a
+ * replica's lag.
+ *
+ * For read-your-writes, writes to a car are recorded when their transaction commits. A transaction that
+ * reads a recently written car may only use a replica whose lag is shorter than the time since that
+ * write, so a client reading right after posting a claim sees its claim. Writes older than
+ * {@code carins.datasource.replicas.max-lag} are forgotten, since no replica lagging further behind is used.
+ *
+ * Transactions allowed to read a replica still read the second-level cache but never store into it, as
+ * their rows may be older than the primary's. Without replicas configured all of this is off, see
+ * {@link #enable}.
+ */
+@Component
+public class ReplicaReads {
+
+    /** Bound for transactions that may use any replica. */
+    private static final Long ANY_REPLICA = Long.MIN_VALUE;
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final long maxLagNanos;
+    private final Map<Long, Long> lastWriteByCar = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> boundWrite = new ThreadLocal<>();
+    private volatile boolean enabled;
+
+    /**
+     * @param entityManagerFactory resolved on use: the replica routing DataSource depends on this bean, and
+     *                             the EntityManagerFactory on that DataSource
+     */
+    public ReplicaReads(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                        @Value("${carins.datasource.replicas.max-lag:5s}") Duration maxLag) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxLagNanos = maxLag.toNanos();
+    }
+
+    /**
+     * Called when replica routing is set up. Until then there is only the primary, so transactions are not
+     * bound and keep filling the second-level cache, and writes are not recorded.
+     */
+    public void enable() {
+        enabled = true;
+    }
+
+    public void recordWrite(Long carId) {
+        recordWrites(List.of(carId));
+    }
+
+    /**
+     * Records writes to the given cars, as of the commit of the current transaction if there is one.
+     */
+    public void recordWrites(Collection<Long> carIds) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(carIds);
+            return;
+        }
+        List<Long> written = List.copyOf(carIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(written);
+            }
+        });
+    }
+
+    /**
+     * Lets the current transaction read from a replica.
+     */
+    public void allow() {
+        bind(ANY_REPLICA);
+    }
+
+    /**
+     * Lets the current transaction read from a replica that already has the last write to the car.
+     */
+    public void allowForCar(Long carId) {
+        Long writtenAt = lastWriteByCar.get(carId);
+        bind(writtenAt == null || System.nanoTime() - writtenAt > maxLagNanos ? ANY_REPLICA : writtenAt);
+    }
+
+    /**
+     * @return the largest lag a replica may have to serve the current transaction, negative if the
+     *         transaction must read the primary
+     */
+    public long allowedLagNanos() {
+        Long writtenAt = boundWrite.get();
+        if (writtenAt == null) {
+            return -1;
+        }
+        return writtenAt.equals(ANY_REPLICA) ? Long.MAX_VALUE : System.nanoTime() - writtenAt - 1;
+    }
+
+    @Scheduled(fixedDelayString = "${carins.datasource.replicas.max-lag:5s}")
+    public void forgetOldWrites() {
+        long now = System.nanoTime();
+        lastWriteByCar.values().removeIf(writtenAt -> now - writtenAt > maxLagNanos);
+    }
+
+    private void bind(Long writtenAt) {
+        if (!enabled
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || boundWrite.get() != null) {
+            return;
+        }
+        boundWrite.set(writtenAt);
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory.getObject());
+        entityManager.setProperty(HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boundWrite.remove();
+                // with open session in view the session outlives the transaction
+                entityManager.setProperty(HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.USE);
+            }
+        });
+    }
+
+    private void record(Collection<Long> carIds) {
+        long now = System.nanoTime();
+        for (Long carId : carIds) {
+            lastWriteByCar.put(carId, now);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.carins.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Loads a synthetic fleet on startup when {@code carins.generate.cars} is set, for load tests and query plan
+ * checks at realistic sizes.
+ *
+ * Rows are written to CSV files first and loaded with one {@code INSERT ... SELECT FROM CSVREAD} per table,
+ * which is far faster than going through JPA. Ids continue after the existing rows, and the identity
+ * columns and id sequences are moved past the generated ids afterwards. The generator runs before the
+ * application is ready, so the coverage index, the claim rollups and the expiration wheel are built from
+ * the generated data.
+ *
+ * Every car gets a chain of back-to-back policies, most of them contiguous and some with gaps, ending
+ * around today; claims are spread over the last three years, each with its history entry. The same seed
+ * always produces the same data.
+ */
+@Component
+@ConditionalOnProperty(prefix = "carins.generate", name = "cars")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] FIRST_NAMES = { "Ana", "Bogdan", "Cristina", "Dan", "Elena", "Florin", "Gabriela",
+            "Horia", "Ioana", "Mihai", "Raluca", "Stefan", "Teodora", "Vlad" };
+    private static final String[] LAST_NAMES = { "Pop", "Ionescu", "Popescu", "Radu", "Stan", "Dumitru", "Marin",
+            "Tudor", "Barbu", "Munteanu" };
+    private static final String[][] MODELS = { { "Dacia", "Logan" }, { "Dacia", "Duster" }, { "VW", "Golf" },
+            { "VW", "Passat" }, { "Skoda", "Octavia" }, { "Renault", "Clio" }, { "Ford", "Focus" },
+            { "Toyota", "Corolla" }, { "BMW", "320d" }, { "Audi", "A4" } };
+    private static final String[] PROVIDERS = { "Allianz", "Groupama", "Generali", "Omniasig", "Asirom", "Uniqa" };
+    private static final String[] CLAIMS = { "Minor collision damage", "Cracked windshield", "Hail damage on roof",
+            "Scratched bumper", "Broken side mirror", "Rear light replaced", "Door dent repair", "Stolen wheels" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final CarVersions carVersions;
+    private final int cars;
+    private final int owners;
+    private final int policiesPerCar;
+    private final int claimsPerCar;
+    private final long seed;
+    private final String directory;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, Clock clock, CarVersions carVersions,
+                                  @Value("${carins.generate.cars}") int cars,
+                                  @Value("${carins.generate.owners:0}") int owners,
+                                  @Value("${carins.generate.policies-per-car:10}") int policiesPerCar,
+                                  @Value("${carins.generate.claims-per-car:1}") int claimsPerCar,
+                                  @Value("${carins.generate.seed:42}") long seed,
+                                  @Value("${carins.generate.directory:}") String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.carVersions = carVersions;
+        this.cars = cars;
+        this.owners = owners > 0 ? owners : Math.max(1, cars / 2);
+        this.policiesPerCar = policiesPerCar;
+        this.claimsPerCar = claimsPerCar;
+        this.seed = seed;
+        this.directory = directory;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long started = System.nanoTime();
+        Path dir = directory.isBlank() ? Files.createTempDirectory("carins-data") : Files.createDirectories(Path.of(directory));
+
+        long firstOwner = nextId("owner");
+        long firstCar = nextId("car");
+        long firstPolicy = nextId("insurancepolicy");
+        long firstClaim = nextId("claim");
+        long firstHistory = nextId("history");
+
+        Path ownerFile = dir.resolve("owners.csv");
+        Path carFile = dir.resolve("cars.csv");
+        Path policyFile = dir.resolve("policies.csv");
+        Path claimFile = dir.resolve("claims.csv");
+        Path historyFile = dir.resolve("history.csv");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        writeOwners(ownerFile, firstOwner, random);
+        long[] counts = writeCarsAndChildren(carFile, policyFile, claimFile, historyFile,
+                firstOwner, firstCar, firstPolicy, firstClaim, firstHistory, random);
+        long policies = counts[0];
+        long claims = counts[1];
+        long written = System.nanoTime();
+
+        load("owner", "id, name, email", "CAST(id AS BIGINT), name, email", ownerFile);
+        load("car", "id, vin, make, model, year_of_manufacture, owner_id",
+                "CAST(id AS BIGINT), vin, make, model, CAST(year_of_manufacture AS INT), CAST(owner_id AS BIGINT)", carFile);
+        load("insurancepolicy", "id, car_id, provider, start_date, end_date",
+                "CAST(id AS BIGINT), CAST(car_id AS BIGINT), provider, CAST(start_date AS DATE), CAST(end_date AS DATE)", policyFile);
+        load("claim", "id, car_id, claim_date, description, amount",
+                "CAST(id AS BIGINT), CAST(car_id AS BIGINT), CAST(claim_date AS DATE), description, CAST(amount AS INT)", claimFile);
+        load("history", "id, car_id, event, date",
+                "CAST(id AS BIGINT), CAST(car_id AS BIGINT), event, CAST(date AS DATE)", historyFile);
+
+        jdbcTemplate.execute("ALTER TABLE owner ALTER COLUMN id RESTART WITH " + (firstOwner + owners));
+        jdbcTemplate.execute("ALTER TABLE car ALTER COLUMN id RESTART WITH " + (firstCar + cars));
+        jdbcTemplate.execute("ALTER TABLE insurancepolicy ALTER COLUMN id RESTART WITH " + (firstPolicy + policies));
+        // pooled sequences hand out the block below the returned value, so leave a full block of headroom
+        jdbcTemplate.execute("ALTER SEQUENCE claim_seq RESTART WITH " + (firstClaim + claims + 50));
+        jdbcTemplate.execute("ALTER SEQUENCE history_seq RESTART WITH " + (firstHistory + claims + 50));
+        // the rows went around JPA, so no response tagged before the load may be reused
+        carVersions.invalidateAll();
+
+        logger.info("Generated {} owners, {} cars (ids {}..{}), {} policies and {} claims: CSV in {} ms, load in {} ms ({})",
+                owners, cars, firstCar, firstCar + cars - 1, policies, claims,
+                (written - started) / 1_000_000, (System.nanoTime() - written) / 1_000_000, dir);
+    }
+
+    private void writeOwners(Path file, long firstOwner, SplittableRandom random) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("id,name,email\n");
+            for (long id = firstOwner; id < firstOwner + owners; id++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                out.write(id + "," + first + " " + last + "," + first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com\n");
+            }
+        }
+    }
+
+    /**
+     * @return the number of policies and claims written
+     */
+    private long[] writeCarsAndChildren(Path carFile, Path policyFile, Path claimFile, Path historyFile,
+                                        long firstOwner, long firstCar, long firstPolicy, long firstClaim, long firstHistory,
+                                        SplittableRandom random) throws IOException {
+        LocalDate today = LocalDate.now(clock);
+        long policyId = firstPolicy;
+        long claimId = firstClaim;
+        long historyId = firstHistory;
+
+        try (BufferedWriter carOut = Files.newBufferedWriter(carFile);
+             BufferedWriter policyOut = Files.newBufferedWriter(policyFile);
+             BufferedWriter claimOut = Files.newBufferedWriter(claimFile);
+             BufferedWriter historyOut = Files.newBufferedWriter(historyFile)) {
+            carOut.write("id,vin,make,model,year_of_manufacture,owner_id\n");
+            policyOut.write("id,car_id,provider,start_date,end_date\n");
+            claimOut.write("id,car_id,claim_date,description,amount\n");
+            historyOut.write("id,car_id,event,date\n");
+
+            for (long carId = firstCar; carId < firstCar + cars; carId++) {
+                String[] model = MODELS[random.nextInt(MODELS.length)];
+                carOut.write(carId + ",GEN" + String.format("%014d", carId) + "," + model[0] + "," + model[1] + ","
+                        + (2000 + random.nextInt(26)) + "," + (firstOwner + random.nextInt(owners)) + "\n");
+
+                // walk back in time from a policy ending up to a year from now
+                int policyCount = policiesPerCar <= 0 ? 0 : random.nextInt(Math.max(1, policiesPerCar - 2), policiesPerCar + 3);
+                LocalDate end = today.plusDays(random.nextInt(365));
+                for (int i = 0; i < policyCount; i++) {
+                    LocalDate start = end.minusMonths(random.nextInt(5) == 0 ? 6 : 12).plusDays(1);
+                    policyOut.write(policyId++ + "," + carId + "," + PROVIDERS[random.nextInt(PROVIDERS.length)] + ","
+                            + start + "," + end + "\n");
+                    int gap = random.nextInt(5) == 0 ? 1 + random.nextInt(60) : 1;
+                    end = start.minusDays(gap);
+                }
+
+                int claimCount = claimsPerCar <= 0 ? 0 : random.nextInt(2 * claimsPerCar + 1);
+                for (int i = 0; i < claimCount; i++) {
+                    LocalDate date = today.minusDays(random.nextInt(3 * 365));
+                    String description = CLAIMS[random.nextInt(CLAIMS.length)];
+                    claimOut.write(claimId++ + "," + carId + "," + date + "," + description + "," + (100 + random.nextInt(20_000)) + "\n");
+                    historyOut.write(historyId++ + "," + carId + "," + description + "," + date + "\n");
+                }
+            }
+        }
+        return new long[] { policyId - firstPolicy, claimId - firstClaim };
+    }
+
+    private void load(String table, String columns, String select, Path file) {
+        String path = file.toAbsolutePath().toString().replace("'", "''");
+        long started = System.nanoTime();
+        int rows = jdbcTemplate.update("INSERT INTO " + table + " (" + columns + ") SELECT " + select
+                + " FROM CSVREAD('" + path + "', NULL, 'charset=UTF-8')");
+        logger.info("Loaded {} rows into {} in {} ms", rows, table, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max == null ? 1 : max + 1;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.carins.service;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of validating a {@code YYYY-MM-DD} request date: either a valid day, kept as an epoch day, or the
+ * reason it was rejected.
+ *
+ * Instances are immutable and shared. {@link ValidationService} hands out precomputed instances for every day
+ * of its accepted window and one instance per rejection reason, so validating a date allocates nothing.
+ */
+public final class ValidatedDate {
+
+    public enum Status { VALID, MISSING, INVALID_FORMAT, OUT_OF_RANGE }
+
+    static final ValidatedDate MISSING = new ValidatedDate(Status.MISSING, 0, null);
+    static final ValidatedDate INVALID_FORMAT = new ValidatedDate(Status.INVALID_FORMAT, 0, null);
+    static final ValidatedDate OUT_OF_RANGE = new ValidatedDate(Status.OUT_OF_RANGE, 0, null);
+
+    private final Status status;
+    private final int epochDay;
+    private final String text;
+
+    private ValidatedDate(Status status, int epochDay, String text) {
+        this.status = status;
+        this.epochDay = epochDay;
+        this.text = text;
+    }
+
+    static ValidatedDate of(int epochDay) {
+        return new ValidatedDate(Status.VALID, epochDay, LocalDate.ofEpochDay(epochDay).toString());
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the day since 1970-01-01; only meaningful for valid dates
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public LocalDate toLocalDate() {
+        if (!isValid()) {
+            throw new IllegalStateException("Not a valid date: " + status);
+        }
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @return the date as {@code YYYY-MM-DD} for valid dates, the status otherwise
+     */
+    @Override
+    public String toString() {
+        return isValid() ? text : status.name();
+    }
+}
@@ -2,22 +2,151 @@ package com.example.carins.service;
 
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
 
+/**
+ * Validates request dates without going through {@code LocalDate.parse}.
+ *
+ * {@code YYYY-MM-DD} text is parsed digit by digit straight into an epoch day, and bad input is reported
+ * through {@link ValidatedDate#getStatus()} instead of an exception. Dates are accepted up to two years
+ * before or after today. The bounds and one {@link ValidatedDate} per accepted day are computed once and
+ * rolled over at the first call after midnight, so the request path only compares ints and reads an array.
+ */
 @Service
 public class ValidationService {
-    public LocalDate validateAndParseDate(String dateString) {
-        LocalDate date = LocalDate.parse(dateString);
-        
-        LocalDate now = LocalDate.now();
-        LocalDate minDate = now.minusYears(2);
-        LocalDate maxDate = now.plusYears(2);
-        
-        if (date.isBefore(minDate) || date.isAfter(maxDate)) {
-            throw new IllegalArgumentException("Date out of range");
-        }
-        
-        return date;
+
+    /** Returned by {@link #parseEpochDay} for text that is not a valid {@code YYYY-MM-DD} date. */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final int RANGE_YEARS = 2;
+    private static final int DAYS_0000_TO_1970 = 719_528;
+
+    private final Clock clock;
+    private volatile Window window;
+
+    /** Accepted days {@code [minDay, maxDay]}, valid until {@code expiresAt} epoch millis. */
+    private record Window(int minDay, int maxDay, long expiresAt, ValidatedDate[] dates) {}
+
+    public ValidationService(Clock clock) {
+        this.clock = clock;
+        this.window = computeWindow();
+    }
+
+    /**
+     * Parses {@code text} and checks that it lies within the accepted range.
+     */
+    public ValidatedDate validateDate(CharSequence text) {
+        if (text == null) {
+            return ValidatedDate.MISSING;
+        }
+        int day = parseEpochDay(text);
+        if (day == INVALID) {
+            return ValidatedDate.INVALID_FORMAT;
+        }
+        Window current = currentWindow();
+        if (day < current.minDay() || day > current.maxDay()) {
+            return ValidatedDate.OUT_OF_RANGE;
+        }
+        return current.dates()[day - current.minDay()];
+    }
+
+    /**
+     * Parses {@code text} without a range check, for endpoints such as exports that take arbitrary dates.
+     */
+    public ValidatedDate parseDate(CharSequence text) {
+        if (text == null) {
+            return ValidatedDate.MISSING;
+        }
+        int day = parseEpochDay(text);
+        if (day == INVALID) {
+            return ValidatedDate.INVALID_FORMAT;
+        }
+        Window current = currentWindow();
+        if (day < current.minDay() || day > current.maxDay()) {
+            return ValidatedDate.of(day);
+        }
+        return current.dates()[day - current.minDay()];
+    }
+
+    /**
+     * Parses a strict {@code YYYY-MM-DD} date, year 0000 to 9999, into days since 1970-01-01.
+     *
+     * @return the epoch day, or {@link #INVALID} if the text is malformed or names a day that does not exist
+     */
+    public static int parseEpochDay(CharSequence text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    private Window currentWindow() {
+        Window current = window;
+        if (clock.millis() >= current.expiresAt()) {
+            // Racing threads compute the same window, so the last write wins harmlessly
+            current = computeWindow();
+            window = current;
+        }
+        return current;
+    }
+
+    private Window computeWindow() {
+        LocalDate today = LocalDate.now(clock);
+        int minDay = Math.toIntExact(today.minusYears(RANGE_YEARS).toEpochDay());
+        int maxDay = Math.toIntExact(today.plusYears(RANGE_YEARS).toEpochDay());
+        ValidatedDate[] dates = new ValidatedDate[maxDay - minDay + 1];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = ValidatedDate.of(minDay + i);
+        }
+        long expiresAt = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Window(minDay, maxDay, expiresAt, dates);
+    }
+
+    /**
+     * @return the value of {@code count} ASCII digits starting at {@code from}, or -1 if any is not a digit
+     */
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /** Same arithmetic as {@link LocalDate#toEpochDay()}, for non-negative years. */
+    private static int epochDay(int year, int month, int day) {
+        int total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
     }
 }
@@ -0,0 +1,57 @@
+package com.example.carins.web;
+
+import com.example.carins.service.InvalidRequestException;
+import com.example.carins.service.NotFoundException;
+import com.example.carins.service.NotReadyException;
+import com.example.carins.web.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps service errors to {@link ErrorResponse} bodies for every controller.
+ *
+ * Bodies are always written as JSON, also for endpoints that otherwise produce NDJSON, so an export that
+ * fails before its first row answers like any other endpoint.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(NotFoundException ex) {
+        return error(HttpStatus.NOT_FOUND, new ErrorResponse(ex.getMessage(), 404));
+    }
+
+    @ExceptionHandler(NotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleNotReady(NotReadyException ex) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, new ErrorResponse(ex.getMessage(), 503));
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        return error(HttpStatus.BAD_REQUEST, new ErrorResponse(ex.getMessage(), ex.getField(), 400));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
+        FieldError fieldError = ex.getBindingResult().getFieldError();
+        String field = fieldError != null ? fieldError.getField() : "unknown";
+
+        String errorMessage = switch (field) {
+            case "claimDate" -> "Invalid claim date";
+            case "description" -> "Invalid description";
+            case "amount" -> "Invalid amount";
+            default -> "Invalid " + field;
+        };
+
+        return error(HttpStatus.BAD_REQUEST, new ErrorResponse(errorMessage, field, 400));
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, ErrorResponse body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
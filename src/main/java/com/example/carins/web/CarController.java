@@ -1,18 +1,40 @@
 package com.example.carins.web;
 
-import com.example.carins.model.Car;
 import com.example.carins.model.Claim;
+import com.example.carins.model.ClaimSummary;
 import com.example.carins.model.History;
 import com.example.carins.service.CarService;
+import com.example.carins.service.CarSummary;
+import com.example.carins.service.ClaimRollupService.ClaimRollup;
+import com.example.carins.service.CoverageReportService;
+import com.example.carins.service.CoverageReportService.CarGaps;
+import com.example.carins.service.CoverageReportService.MatchingCars;
+import com.example.carins.service.CoverageReportService.Span;
+import com.example.carins.service.CoverageReportService.Timeline;
+import com.example.carins.service.PolicyCoverageIndex;
+import com.example.carins.service.ValidatedDate;
 import com.example.carins.service.ValidationService;
 import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.CarPage;
 import com.example.carins.web.dto.ClaimDto;
 import com.example.carins.web.dto.ClaimRequest;
+import com.example.carins.web.dto.ClaimSummaryDto;
+import com.example.carins.web.dto.CoverageCarsDto;
+import com.example.carins.web.dto.CoverageGapsDto;
+import com.example.carins.web.dto.CoverageSpanDto;
+import com.example.carins.web.dto.CoverageTimelineDto;
 import com.example.carins.web.dto.ErrorResponse;
 import com.example.carins.web.dto.HistoryDto;
+import com.example.carins.web.dto.InsuranceValidityBatchRequest;
+import com.example.carins.web.dto.InsuranceValidityCheck;
 import com.example.carins.web.dto.InsuranceValidityResponse;
+import com.example.carins.web.dto.InsuranceValidityResult;
+import com.example.carins.web.dto.MonthlyClaimsDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -24,35 +46,123 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "Car Insurance", description = "Car insurance management operations")
 public class CarController {
 
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final CarService carService;
+    private final CoverageReportService coverageReportService;
     private final ValidationService validationService;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public CarController(CarService carService, ValidationService validationService) {
+    public CarController(CarService carService, CoverageReportService coverageReportService,
+                         ValidationService validationService, ObjectMapper objectMapper,
+                         @Value("${carins.cars.page-size:50}") int defaultPageSize,
+                         @Value("${carins.cars.max-page-size:1000}") int maxPageSize) {
         this.carService = carService;
+        this.coverageReportService = coverageReportService;
         this.validationService = validationService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    @Operation(summary = "Get all cars")
+    @Operation(summary = "Get all cars", description = "Tagged with the fleet version; a matching If-None-Match is answered with 304")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cars retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Car list unchanged since the ETag in If-None-Match")
+    })
     @GetMapping("/cars")
-    public List<CarDto> getCars() {
-        return carService.listCars().stream().map(this::toDto).toList();
+    public ResponseEntity<List<CarDto>> getCars(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // taken before the read, so a write racing with it can only make the tag older than the body
+        String tag = carService.getFleetTag();
+        if (matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
+        return ResponseEntity.ok().eTag(tag).body(carService.listCars().stream().map(CarDtoMapper::toDto).toList());
+    }
+
+    @Operation(summary = "Get a car", description = "Served from the car cache")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Car retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CarDto.class))),
+        @ApiResponse(responseCode = "404", description = "Car not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cars/{carId}")
+    public ResponseEntity<?> getCar(@Parameter(description = "Car ID") @PathVariable Long carId) {
+        return ResponseEntity.ok(toDto(carService.getCar(carId)));
+    }
+
+    @Operation(summary = "Get a page of cars", description = "Keyset pagination on car id; pass nextCursor as 'after' to get the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid page size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cars/page")
+    public ResponseEntity<?> getCarPage(
+            @Parameter(description = "Id of the last car of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            ErrorResponse error = new ErrorResponse("Page size must be between 1 and " + maxPageSize, "size", 400);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        List<CarDto> items = carService.listCars(after, pageSize).stream().map(CarDtoMapper::toDto).toList();
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).id() : null;
+        return ResponseEntity.ok(new CarPage(items, nextCursor));
+    }
+
+    @Operation(summary = "Stream all cars", description = "Same JSON array as /cars, written incrementally from a database cursor")
+    @GetMapping(value = "/cars/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCars() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                int[] written = {0};
+                carService.forEachCar(car -> {
+                    try {
+                        generator.writeObject(CarDtoMapper.toDto(car));
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @Operation(summary = "Check insurance validity")
@@ -66,21 +176,151 @@ public class CarController {
     @GetMapping("/cars/{carId}/insurance-valid")
     public ResponseEntity<?> isInsuranceValid(
             @Parameter(description = "Car ID") @PathVariable Long carId, 
-            @Parameter(description = "Date (YYYY-MM-DD)") @RequestParam String date) 
+            @Parameter(name = "date", in = ParameterIn.QUERY, required = true, description = "Date (YYYY-MM-DD)") @IsoDate("date") ValidatedDate date) 
     {
-        try {
-            LocalDate parsedDate = validationService.validateAndParseDate(date);
-            boolean valid = carService.isInsuranceValid(carId, parsedDate);
-            return ResponseEntity.ok(new InsuranceValidityResponse(carId, parsedDate.toString(), valid));
-        } catch (DateTimeParseException e) {
-            ErrorResponse error = new ErrorResponse("", 400);
+        String dateError = switch (date.getStatus()) {
+            case VALID -> null;
+            case MISSING -> "Date is required";
+            case INVALID_FORMAT -> "";
+            case OUT_OF_RANGE -> "Date out of range";
+        };
+        if (dateError != null) {
+            ErrorResponse error = new ErrorResponse(dateError, 400);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+        boolean valid = carService.isInsuranceValid(carId, date.getEpochDay());
+        return ResponseEntity.ok(new InsuranceValidityResponse(carId, date.toString(), valid));
+    }
+
+    @Operation(summary = "Check insurance validity for many (car, date) pairs",
+               description = "Results are returned in input order; unknown cars and invalid dates are reported per item")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Checks evaluated"),
+        @ApiResponse(responseCode = "400", description = "Missing or oversized list of checks",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/insurance-valid/batch")
+    public List<InsuranceValidityResult> isInsuranceValidBatch(@Valid @RequestBody InsuranceValidityBatchRequest request) {
+        List<InsuranceValidityCheck> checks = request.checks();
+        ValidatedDate[] dates = new ValidatedDate[checks.size()];
+        String[] errors = new String[checks.size()];
+        Set<Long> carIds = new HashSet<>();
+
+        for (int i = 0; i < checks.size(); i++) {
+            InsuranceValidityCheck check = checks.get(i);
+            if (check == null || check.carId() == null) {
+                errors[i] = "Car ID is required";
+            } else if (check.date() == null) {
+                errors[i] = "Date is required";
+            } else {
+                dates[i] = validationService.validateDate(check.date());
+                switch (dates[i].getStatus()) {
+                    case VALID -> carIds.add(check.carId());
+                    case INVALID_FORMAT -> errors[i] = "Invalid date format";
+                    default -> errors[i] = "Date out of range";
+                }
+            }
+        }
+
+        Map<Long, int[]> coverageByCar = carService.getCoverage(carIds);
+
+        List<InsuranceValidityResult> results = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            InsuranceValidityCheck check = checks.get(i);
+            Long carId = check != null ? check.carId() : null;
+            String date = check != null ? check.date() : null;
+            int[] coverage = carId != null ? coverageByCar.get(carId) : null;
+            if (errors[i] != null) {
+                results.add(InsuranceValidityResult.error(carId, date, errors[i]));
+            } else if (coverage == null) {
+                results.add(InsuranceValidityResult.error(carId, date, "Car not found"));
+            } else {
+                boolean valid = PolicyCoverageIndex.covers(coverage, dates[i].getEpochDay());
+                results.add(InsuranceValidityResult.valid(carId, dates[i].toString(), valid));
+            }
+        }
+        return results;
+    }
+
+    @Operation(summary = "Get the coverage timeline of a car",
+               description = "Covered and uncovered spans between two dates (inclusive), from the merged policies of the car")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Timeline retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CoverageTimelineDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Car not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cars/{carId}/coverage")
+    public ResponseEntity<?> getCoverageTimeline(
+            @Parameter(description = "Car ID") @PathVariable Long carId,
+            @Parameter(name = "from", in = ParameterIn.QUERY, required = true, description = "From date (YYYY-MM-DD)") @IsoDate(value = "from", bounded = false) ValidatedDate from,
+            @Parameter(name = "to", in = ParameterIn.QUERY, required = true, description = "To date (YYYY-MM-DD)") @IsoDate(value = "to", bounded = false) ValidatedDate to) {
+        ErrorResponse error = rangeError(from, to);
+        if (error != null) {
+            return ResponseEntity.status(error.getStatus()).body(error);
+        }
+        return ResponseEntity.ok(toTimelineDto(coverageReportService.getTimeline(carId, from.toLocalDate(), to.toLocalDate())));
+    }
+
+    @Operation(summary = "Export the coverage gaps of the fleet as NDJSON",
+               description = "One CoverageGapsDto per line for every car without an active policy on some day between two dates (inclusive), ordered by car")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/coverage/gaps", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCoverageGaps(
+            @Parameter(name = "from", in = ParameterIn.QUERY, required = true, description = "From date (YYYY-MM-DD)") @IsoDate(value = "from", bounded = false) ValidatedDate from,
+            @Parameter(name = "to", in = ParameterIn.QUERY, required = true, description = "To date (YYYY-MM-DD)") @IsoDate(value = "to", bounded = false) ValidatedDate to) {
+        ResponseEntity<StreamingResponseBody> invalid = validateRange(from, to);
+        if (invalid != null) {
+            return invalid;
+        }
+        return ndjson(sink -> coverageReportService.forEachCarWithGaps(from.toLocalDate(), to.toLocalDate(), gaps -> sink.accept(toGapsDto(gaps))));
+    }
+
+    @Operation(summary = "Find the cars uninsured on a day", description = "Answered from the per-day coverage bitmaps")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cars counted",
+                    content = @Content(schema = @Schema(implementation = CoverageCarsDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date or limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Coverage index is still being built",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/coverage/uninsured")
+    public ResponseEntity<?> getUninsuredCars(
+            @Parameter(name = "date", in = ParameterIn.QUERY, required = true, description = "Date (YYYY-MM-DD)") @IsoDate(value = "date", bounded = false) ValidatedDate date,
+            @Parameter(description = "Number of car ids to list") @RequestParam(defaultValue = "100") int limit) {
+        if (!date.isValid()) {
+            ErrorResponse error = new ErrorResponse("Invalid 'date' date", "date", 400);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (IllegalArgumentException e) {
-            String message = e.getMessage().contains("Date out of range") ? "Date out of range" : "Car not found";
-            int status = e.getMessage().contains("Date out of range") ? 400 : 404;
-            ErrorResponse error = new ErrorResponse(message, status);
-            return ResponseEntity.status(HttpStatus.valueOf(status)).body(error);
         }
+        return ResponseEntity.ok(toCarsDto(coverageReportService.getUninsuredOn(date.toLocalDate(), limit)));
+    }
+
+    @Operation(summary = "Find the cars insured throughout a date range", description = "Answered from the per-day coverage bitmaps")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cars counted",
+                    content = @Content(schema = @Schema(implementation = CoverageCarsDto.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range or limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "503", description = "Coverage index is still being built",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/coverage/insured")
+    public ResponseEntity<?> getInsuredCars(
+            @Parameter(name = "from", in = ParameterIn.QUERY, required = true, description = "From date (YYYY-MM-DD)") @IsoDate(value = "from", bounded = false) ValidatedDate from,
+            @Parameter(name = "to", in = ParameterIn.QUERY, required = true, description = "To date (YYYY-MM-DD)") @IsoDate(value = "to", bounded = false) ValidatedDate to,
+            @Parameter(description = "Number of car ids to list") @RequestParam(defaultValue = "100") int limit) {
+        ErrorResponse error = rangeError(from, to);
+        if (error != null) {
+            return ResponseEntity.status(error.getStatus()).body(error);
+        }
+        return ResponseEntity.ok(toCarsDto(coverageReportService.getInsuredThroughout(from.toLocalDate(), to.toLocalDate(), limit)));
     }
 
     @Operation(summary = "Register insurance claim")
@@ -96,82 +336,204 @@ public class CarController {
     public ResponseEntity<?> registerClaim(
             @Parameter(description = "Car ID") @PathVariable Long carId, 
             @Valid @RequestBody ClaimRequest request) {
-        try {
-            Claim claim = carService.registerClaim(carId, request.claimDate(), request.description(), request.amount());
-            ClaimDto claimDto = toClaimDto(claim);
-            
-            URI location = ServletUriComponentsBuilder
-                    .fromCurrentRequest()
-                    .path("/{id}")
-                    .buildAndExpand(claim.getId())
-                    .toUri();
-            
-            return ResponseEntity.created(location).body(claimDto);
-        } catch (IllegalArgumentException e) {
-            ErrorResponse error = new ErrorResponse("Car not found", 404);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-        }
+        Claim claim = carService.registerClaim(carId, request.claimDate(), request.description(), request.amount());
+        ClaimDto claimDto = CarDtoMapper.toClaimDto(claim);
+        
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(claim.getId())
+                .toUri();
+        
+        return ResponseEntity.created(location).body(claimDto);
+    }
+
+    @Operation(summary = "Get claim totals of a car",
+               description = "Claim count, total amount, last claim date and monthly buckets, read from the claim rollups")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Claim summary retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = ClaimSummaryDto.class))),
+        @ApiResponse(responseCode = "404", description = "Car not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/cars/{carId}/claims/summary")
+    public ResponseEntity<?> getClaimSummary(@Parameter(description = "Car ID") @PathVariable Long carId) {
+        ClaimRollup rollup = carService.getClaimRollup(carId);
+        return ResponseEntity.ok(toClaimSummaryDto(carId, rollup));
     }
 
-    @Operation(summary = "Get car history")
+    @Operation(summary = "Get car history", description = "Tagged with the car version; a matching If-None-Match is answered with 304")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Car history retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "History unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Car not found",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/cars/{carId}/history")
-    public ResponseEntity<?> getCarHistory(@Parameter(description = "Car ID") @PathVariable Long carId) {
-        try {
-            List<History> history = carService.getCarHistory(carId);
-            List<HistoryDto> historyDtos = history.stream().map(this::toHistoryDto).toList();
-            return ResponseEntity.ok(historyDtos);
-        } catch (IllegalArgumentException e) {
-            ErrorResponse error = new ErrorResponse("Car not found", 404);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
-        }
-    }
-
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
-        FieldError fieldError = ex.getBindingResult().getFieldError();
-        String field = fieldError != null ? fieldError.getField() : "unknown";
-        String message = fieldError != null ? fieldError.getDefaultMessage() : "Validation failed";
-        
-        String errorMessage = switch (field) {
-            case "claimDate" -> "Invalid claim date";
-            case "description" -> "Invalid description";
-            case "amount" -> "Invalid amount";
-            default -> "Invalid " + field;
+    public ResponseEntity<?> getCarHistory(
+            @Parameter(description = "Car ID") @PathVariable Long carId,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = carService.getCarTag(carId);
+        if (matches(ifNoneMatch, tag)) {
+            // unwritten cars all have the same tag; the existence check is in memory once the car is cached
+            carService.verifyCarExists(carId);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
+        List<History> history = carService.getCarHistory(carId);
+        List<HistoryDto> historyDtos = history.stream().map(CarDtoMapper::toHistoryDto).toList();
+        return ResponseEntity.ok().eTag(tag).body(historyDtos);
+    }
+
+    @Operation(summary = "Export car history as NDJSON", description = "One HistoryDto per line, in chronological order")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "404", description = "Car not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/cars/{carId}/history/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCarHistory(@Parameter(description = "Car ID") @PathVariable Long carId) {
+        carService.verifyCarExists(carId);
+        return ndjson(sink -> carService.forEachHistoryEvent(carId, history -> sink.accept(CarDtoMapper.toHistoryDto(history))));
+    }
+
+    @Operation(summary = "Export car claims as NDJSON", description = "One ClaimDto per line, ordered by claim date")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "404", description = "Car not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/cars/{carId}/claims/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCarClaims(@Parameter(description = "Car ID") @PathVariable Long carId) {
+        carService.verifyCarExists(carId);
+        return ndjson(sink -> carService.forEachClaim(carId, claim -> sink.accept(CarDtoMapper.toClaimDto(claim))));
+    }
+
+    @Operation(summary = "Export fleet history as NDJSON", description = "History of all cars between two dates (inclusive), ordered by car and date")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/history/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFleetHistory(
+            @Parameter(name = "from", in = ParameterIn.QUERY, required = true, description = "From date (YYYY-MM-DD)") @IsoDate(value = "from", bounded = false) ValidatedDate from,
+            @Parameter(name = "to", in = ParameterIn.QUERY, required = true, description = "To date (YYYY-MM-DD)") @IsoDate(value = "to", bounded = false) ValidatedDate to) {
+        ResponseEntity<StreamingResponseBody> invalid = validateRange(from, to);
+        if (invalid != null) {
+            return invalid;
+        }
+        return ndjson(sink -> carService.forEachHistoryEvent(from.toLocalDate(), to.toLocalDate(), history -> sink.accept(CarDtoMapper.toHistoryDto(history))));
+    }
+
+    @Operation(summary = "Export fleet claims as NDJSON", description = "Claims of all cars between two dates (inclusive), ordered by car and claim date")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export started"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/claims/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportFleetClaims(
+            @Parameter(name = "from", in = ParameterIn.QUERY, required = true, description = "From date (YYYY-MM-DD)") @IsoDate(value = "from", bounded = false) ValidatedDate from,
+            @Parameter(name = "to", in = ParameterIn.QUERY, required = true, description = "To date (YYYY-MM-DD)") @IsoDate(value = "to", bounded = false) ValidatedDate to) {
+        ResponseEntity<StreamingResponseBody> invalid = validateRange(from, to);
+        if (invalid != null) {
+            return invalid;
+        }
+        return ndjson(sink -> carService.forEachClaim(from.toLocalDate(), to.toLocalDate(), claim -> sink.accept(CarDtoMapper.toClaimDto(claim))));
+    }
+
+    private ResponseEntity<StreamingResponseBody> validateRange(ValidatedDate from, ValidatedDate to) {
+        ErrorResponse error = rangeError(from, to);
+        return error != null ? streamedError(error) : null;
+    }
+
+    /**
+     * Whether an If-None-Match header names the tag. A wildcard does not count, since it would also
+     * match for a car that does not exist.
+     */
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(tag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(candidate -> candidate.compare(current, false));
+    }
+
+    private static ErrorResponse rangeError(ValidatedDate from, ValidatedDate to) {
+        if (!from.isValid()) {
+            return new ErrorResponse("Invalid 'from' date", "from", 400);
+        }
+        if (!to.isValid()) {
+            return new ErrorResponse("Invalid 'to' date", "to", 400);
+        }
+        if (from.getEpochDay() > to.getEpochDay()) {
+            return new ErrorResponse("'from' must not be after 'to'", "from", 400);
+        }
+        return null;
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamedError(ErrorResponse error) {
+        return ResponseEntity.status(error.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+    }
+
+    /**
+     * Streams the rows handed to the sink as newline-delimited JSON. The first row is flushed immediately
+     * and the rest in batches, so time-to-first-byte does not depend on the size of the export.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // rows are separated by the newline alone, not by the default space between root values
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                producer.accept(row -> {
+                    try {
+                        generator.writeObject(row);
+                        generator.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 1) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
         };
-        
-        ErrorResponse error = new ErrorResponse(errorMessage, field, 400);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-    }
-
-    private CarDto toDto(Car c) {
-        var o = c.getOwner();
-        return new CarDto(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(),
-                o != null ? o.getId() : null,
-                o != null ? o.getName() : null,
-                o != null ? o.getEmail() : null);
-    }
-
-    private ClaimDto toClaimDto(Claim claim) {
-        return new ClaimDto(
-            claim.getId(),
-            claim.getCar().getId(),
-            claim.getClaimDate(),
-            claim.getDescription(),
-            claim.getAmount()
-        );
-    }
-
-    private HistoryDto toHistoryDto(History history) {
-        return new HistoryDto(
-            history.getId(),
-            history.getCar().getId(),
-            history.getEvent(),
-            history.getDate()
-        );
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static CarDto toDto(CarSummary car) {
+        return new CarDto(car.id(), car.vin(), car.make(), car.model(), car.yearOfManufacture(),
+                car.ownerId(), car.ownerName(), car.ownerEmail());
+    }
+
+    private ClaimSummaryDto toClaimSummaryDto(Long carId, ClaimRollup rollup) {
+        List<MonthlyClaimsDto> months = rollup.months().stream()
+                .map(m -> new MonthlyClaimsDto(YearMonth.from(m.getMonthStart()), m.getClaimCount(), m.getTotalAmount()))
+                .toList();
+        ClaimSummary totals = rollup.totals();
+        if (totals == null) {
+            return new ClaimSummaryDto(carId, 0, 0, null, months);
+        }
+        return new ClaimSummaryDto(carId, totals.getClaimCount(), totals.getTotalAmount(), totals.getLastClaimDate(), months);
+    }
+
+    private static CoverageTimelineDto toTimelineDto(Timeline timeline) {
+        return new CoverageTimelineDto(timeline.carId(), timeline.from(), timeline.to(), timeline.coveredDays(),
+                timeline.uncoveredDays(), timeline.spans().stream().map(CarController::toSpanDto).toList());
+    }
+
+    private static CoverageGapsDto toGapsDto(CarGaps gaps) {
+        return new CoverageGapsDto(gaps.carId(), gaps.uncoveredDays(), gaps.gaps().stream().map(CarController::toSpanDto).toList());
+    }
+
+    private static CoverageSpanDto toSpanDto(Span span) {
+        return new CoverageSpanDto(span.from(), span.to(), span.covered());
+    }
+
+    private static CoverageCarsDto toCarsDto(MatchingCars cars) {
+        return new CoverageCarsDto(cars.from(), cars.to(), cars.count(), cars.carIds(), cars.truncated());
     }
 }
@@ -0,0 +1,44 @@
+package com.example.carins.web;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.History;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.ClaimDto;
+import com.example.carins.web.dto.HistoryDto;
+
+/**
+ * Maps the car, claim and history entities returned by the services to the DTOs of {@link CarController}.
+ */
+final class CarDtoMapper {
+
+    private CarDtoMapper() {
+    }
+
+    static CarDto toDto(Car c) {
+        var o = c.getOwner();
+        return new CarDto(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(),
+                o != null ? o.getId() : null,
+                o != null ? o.getName() : null,
+                o != null ? o.getEmail() : null);
+    }
+
+    static ClaimDto toClaimDto(Claim claim) {
+        return new ClaimDto(
+            claim.getId(),
+            claim.getCar().getId(),
+            claim.getClaimDate(),
+            claim.getDescription(),
+            claim.getAmount()
+        );
+    }
+
+    static HistoryDto toHistoryDto(History history) {
+        return new HistoryDto(
+            history.getId(),
+            history.getCar().getId(),
+            history.getEvent(),
+            history.getDate()
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ClaimImportService;
+import com.example.carins.service.ClaimRollupService;
+import com.example.carins.web.dto.ClaimSummaryDto;
+import com.example.carins.web.dto.ErrorResponse;
+import com.example.carins.web.dto.ImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Claims", description = "Fleet-wide claim operations")
+public class ClaimController {
+
+    private final ClaimImportService claimImportService;
+    private final ClaimRollupService claimRollupService;
+    private final int maxTopLimit;
+
+    public ClaimController(ClaimImportService claimImportService, ClaimRollupService claimRollupService,
+                           @Value("${carins.claims.top.max-limit:100}") int maxTopLimit) {
+        this.claimImportService = claimImportService;
+        this.claimRollupService = claimRollupService;
+        this.maxTopLimit = maxTopLimit;
+    }
+
+    @Operation(summary = "Import claims in bulk",
+               description = "Accepts a JSON array or newline-delimited JSON of ClaimImportRow; invalid rows are reported, valid rows are imported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(schema = @Schema(implementation = ImportResult.class))),
+        @ApiResponse(responseCode = "400", description = "Input is not valid JSON",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/claims/bulk", consumes = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> importClaims(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(ImportResult.of(claimImportService.importClaims(body)));
+        } catch (JsonProcessingException e) {
+            // chunks before the broken row are already committed
+            ErrorResponse error = new ErrorResponse("Malformed input: " + e.getOriginalMessage(), 400);
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @Operation(summary = "Rank cars by claims",
+               description = "The cars with the highest total claim amount or claim count, read from the claim rollups")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ranking retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid ranking or limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/claims/top")
+    public ResponseEntity<?> getTopCars(
+            @Parameter(description = "Rank by 'amount' or 'count'") @RequestParam(defaultValue = "amount") String by,
+            @Parameter(description = "Number of cars") @RequestParam(defaultValue = "10") int limit) {
+        ClaimRollupService.Ranking ranking;
+        try {
+            ranking = ClaimRollupService.Ranking.valueOf(by.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            ErrorResponse error = new ErrorResponse("Invalid ranking. Use 'amount' or 'count'", 400);
+            return ResponseEntity.badRequest().body(error);
+        }
+        if (limit < 1 || limit > maxTopLimit) {
+            ErrorResponse error = new ErrorResponse("Limit must be between 1 and " + maxTopLimit, 400);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        List<ClaimSummaryDto> top = claimRollupService.topCars(ranking, limit).stream()
+                .map(s -> new ClaimSummaryDto(s.getCarId(), s.getClaimCount(), s.getTotalAmount(), s.getLastClaimDate(), null))
+                .toList();
+        return ResponseEntity.ok(top);
+    }
+}
@@ -2,62 +2,87 @@ package com.example.carins.web;
 
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.service.InsurancePolicyService;
+import com.example.carins.service.ImportReport;
+import com.example.carins.service.PolicyImportService;
 import com.example.carins.web.dto.ErrorResponse;
+import com.example.carins.web.dto.ImportResult;
 import com.example.carins.web.dto.InsurancePolicyDto;
-import org.springframework.http.HttpStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/api")
 public class InsurancePolicyController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
     private final InsurancePolicyService insurancePolicyService;
+    private final PolicyImportService policyImportService;
 
-    public InsurancePolicyController(InsurancePolicyService insurancePolicyService) {
+    public InsurancePolicyController(InsurancePolicyService insurancePolicyService, PolicyImportService policyImportService) {
         this.insurancePolicyService = insurancePolicyService;
+        this.policyImportService = policyImportService;
     }
 
     @PostMapping("/insurance-policies")
     public ResponseEntity<?> createInsurancePolicy(@RequestBody InsurancePolicyDto request) {
-        try {
-            insurancePolicyService.createInsurancePolicy(
-                request.getCarId(),
-                request.getProvider(),
-                request.getStartDate(),
-                request.getEndDate()
-            );
-
-            return ResponseEntity.ok().build();
-        } catch (IllegalArgumentException e) {
-            String message = e.getMessage();
-            String field = message.contains("end date") ? "endDate" : null;
-            int status = message.contains("Car not found") ? 404 : 400;
-            
-            ErrorResponse error = new ErrorResponse(message, field, status);
-            return ResponseEntity.status(HttpStatus.valueOf(status)).body(error);
-        }
+        insurancePolicyService.createInsurancePolicy(
+            request.getCarId(),
+            request.getProvider(),
+            request.getStartDate(),
+            request.getEndDate()
+        );
+
+        return ResponseEntity.ok().build();
     }
 
     @PutMapping("/insurance-policies/{policyId}")
     public ResponseEntity<?> updateInsurancePolicy(@PathVariable Long policyId, @RequestBody InsurancePolicyDto request) {
+        insurancePolicyService.updateInsurancePolicy(
+            policyId,
+            request.getCarId(),
+            request.getProvider(),
+            request.getStartDate(),
+            request.getEndDate()
+        );
+
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(summary = "Import insurance policies in bulk",
+               description = "Accepts CSV with the header vin,provider,startDate,endDate, a JSON array or newline-delimited JSON of objects with the same fields; "
+                       + "rows that are invalid, name an unknown VIN or overlap another policy of the car are reported, the rest are imported")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(schema = @Schema(implementation = ImportResult.class))),
+        @ApiResponse(responseCode = "400", description = "Input is not valid CSV or JSON",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/insurance-policies/bulk",
+                 consumes = { TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<?> importInsurancePolicies(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                     InputStream body) throws IOException {
         try {
-            insurancePolicyService.updateInsurancePolicy(
-                policyId,
-                request.getCarId(),
-                request.getProvider(),
-                request.getStartDate(),
-                request.getEndDate()
-            );
-
-            return ResponseEntity.ok().build();
-        } catch (IllegalArgumentException e) {
-            String message = e.getMessage();
-            String field = message.contains("end date") ? "endDate" : null;
-            int status = message.contains("not found") ? 404 : 400;
-            
-            ErrorResponse error = new ErrorResponse(message, field, status);
-            return ResponseEntity.status(HttpStatus.valueOf(status)).body(error);
+            ImportReport report = TEXT_CSV.isCompatibleWith(contentType)
+                    ? policyImportService.importCsv(body)
+                    : policyImportService.importJson(body);
+            return ResponseEntity.ok(ImportResult.of(report));
+        } catch (JsonProcessingException e) {
+            // chunks before the broken row are already committed
+            ErrorResponse error = new ErrorResponse("Malformed input: " + e.getOriginalMessage(), 400);
+            return ResponseEntity.badRequest().body(error);
         }
     }
 }
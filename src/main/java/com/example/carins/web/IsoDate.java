@@ -0,0 +1,26 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ValidatedDate;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@code YYYY-MM-DD} query parameter to a {@link ValidatedDate} parameter through
+ * {@link IsoDateArgumentResolver}. Missing, malformed and out-of-range dates are not errors at binding time;
+ * the handler inspects {@link ValidatedDate#getStatus()} and answers with its own error response.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface IsoDate {
+
+    /** Name of the query parameter. */
+    String value();
+
+    /** Whether the date must lie within the range accepted by the validation service. */
+    boolean bounded() default true;
+}
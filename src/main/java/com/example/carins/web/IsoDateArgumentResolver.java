@@ -0,0 +1,35 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ValidatedDate;
+import com.example.carins.service.ValidationService;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link IsoDate} parameters with {@link ValidationService}, bypassing the conversion service
+ * and the exceptions it throws on bad input.
+ */
+public class IsoDateArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final ValidationService validationService;
+
+    public IsoDateArgumentResolver(ValidationService validationService) {
+        this.validationService = validationService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(IsoDate.class) && parameter.getParameterType() == ValidatedDate.class;
+    }
+
+    @Override
+    public ValidatedDate resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        IsoDate annotation = parameter.getParameterAnnotation(IsoDate.class);
+        String text = webRequest.getParameter(annotation.value());
+        return annotation.bounded() ? validationService.validateDate(text) : validationService.parseDate(text);
+    }
+}
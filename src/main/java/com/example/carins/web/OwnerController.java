@@ -0,0 +1,92 @@
+package com.example.carins.web;
+
+import com.example.carins.repo.OwnerPolicy;
+import com.example.carins.service.OwnerPortfolioService;
+import com.example.carins.service.OwnerPortfolioService.Portfolio;
+import com.example.carins.service.OwnerPortfolioService.PortfolioCar;
+import com.example.carins.web.dto.ErrorResponse;
+import com.example.carins.web.dto.InsurancePolicyDto;
+import com.example.carins.web.dto.OwnerPortfolioDto;
+import com.example.carins.web.dto.OwnerPortfolioPage;
+import com.example.carins.web.dto.PortfolioCarDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Owners", description = "Owner portfolios")
+public class OwnerController {
+
+    private final OwnerPortfolioService portfolioService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public OwnerController(OwnerPortfolioService portfolioService,
+                           @Value("${carins.owners.page-size:20}") int defaultPageSize,
+                           @Value("${carins.owners.max-page-size:200}") int maxPageSize) {
+        this.portfolioService = portfolioService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Operation(summary = "Get the portfolio of an owner", description = "Cars with the policies active today and claim totals, read in a fixed number of queries")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OwnerPortfolioDto.class))),
+        @ApiResponse(responseCode = "404", description = "Owner not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/owners/{ownerId}/portfolio")
+    public ResponseEntity<?> getPortfolio(@Parameter(description = "Owner ID") @PathVariable Long ownerId) {
+        return ResponseEntity.ok(toDto(portfolioService.getPortfolio(ownerId)));
+    }
+
+    @Operation(summary = "Get a page of owner portfolios", description = "Keyset pagination on owner id; pass nextCursor as 'after' to get the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OwnerPortfolioPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid page size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/owners/portfolios")
+    public ResponseEntity<?> getPortfolioPage(
+            @Parameter(description = "Id of the last owner of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size") @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            ErrorResponse error = new ErrorResponse("Page size must be between 1 and " + maxPageSize, "size", 400);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+
+        List<OwnerPortfolioDto> items = portfolioService.getPortfolios(after, pageSize).stream().map(OwnerController::toDto).toList();
+        Long nextCursor = items.size() == pageSize ? items.get(items.size() - 1).ownerId() : null;
+        return ResponseEntity.ok(new OwnerPortfolioPage(items, nextCursor));
+    }
+
+    private static OwnerPortfolioDto toDto(Portfolio portfolio) {
+        return new OwnerPortfolioDto(portfolio.ownerId(), portfolio.name(), portfolio.email(), portfolio.date(),
+                portfolio.uninsuredCars(), portfolio.claimCount(), portfolio.claimTotal(),
+                portfolio.cars().stream().map(OwnerController::toDto).toList());
+    }
+
+    private static PortfolioCarDto toDto(PortfolioCar car) {
+        return new PortfolioCarDto(car.carId(), car.vin(), car.make(), car.model(), car.yearOfManufacture(),
+                car.activePolicies().stream().map(OwnerController::toDto).toList(),
+                car.claimCount(), car.claimTotal(), car.lastClaimDate());
+    }
+
+    private static InsurancePolicyDto toDto(OwnerPolicy policy) {
+        return new InsurancePolicyDto(policy.policyId(), policy.carId(), policy.provider(), policy.startDate(), policy.endDate());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.carins.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Claim totals of one car")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ClaimSummaryDto(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "Number of claims", example = "3")
+    long claimCount,
+
+    @Schema(description = "Sum of all claim amounts", example = "4500")
+    long totalAmount,
+
+    @Schema(description = "Date of the latest claim; absent when the car has no claims", example = "2025-09-09")
+    LocalDate lastClaimDate,
+
+    @Schema(description = "Totals per calendar month, oldest first; absent in fleet rankings")
+    List<MonthlyClaimsDto> months
+) {}
@@ -0,0 +1,24 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Cars matching a coverage question over a date range")
+public record CoverageCarsDto(
+    @Schema(description = "First day of the range", example = "2025-06-01")
+    LocalDate from,
+
+    @Schema(description = "Last day of the range (inclusive); equal to from for a single day", example = "2025-06-01")
+    LocalDate to,
+
+    @Schema(description = "Number of matching cars", example = "1250")
+    long count,
+
+    @Schema(description = "Ids of the matching cars in ascending order, at most 'limit' of them")
+    List<Long> carIds,
+
+    @Schema(description = "Whether more cars match than listed in carIds", example = "true")
+    boolean truncated
+) {}
@@ -0,0 +1,17 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Car with days without an active policy in the requested range")
+public record CoverageGapsDto(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "Days without an active policy", example = "65")
+    long uncoveredDays,
+
+    @Schema(description = "Uncovered spans, in date order")
+    List<CoverageSpanDto> gaps
+) {}
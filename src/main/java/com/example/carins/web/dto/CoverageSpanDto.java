@@ -0,0 +1,17 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Consecutive days on which a car was either insured or not")
+public record CoverageSpanDto(
+    @Schema(description = "First day of the span", example = "2025-01-01")
+    LocalDate from,
+
+    @Schema(description = "Last day of the span (inclusive)", example = "2025-12-31")
+    LocalDate to,
+
+    @Schema(description = "Whether a policy was active on every day of the span", example = "true")
+    boolean covered
+) {}
@@ -0,0 +1,27 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Insurance coverage of a car between two dates")
+public record CoverageTimelineDto(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "First day of the timeline", example = "2025-01-01")
+    LocalDate from,
+
+    @Schema(description = "Last day of the timeline (inclusive)", example = "2025-12-31")
+    LocalDate to,
+
+    @Schema(description = "Days on which a policy was active", example = "300")
+    long coveredDays,
+
+    @Schema(description = "Days without an active policy", example = "65")
+    long uncoveredDays,
+
+    @Schema(description = "Alternating covered and uncovered spans, in date order, together covering from..to")
+    List<CoverageSpanDto> spans
+) {}
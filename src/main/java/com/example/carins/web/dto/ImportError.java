@@ -0,0 +1,15 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Rejected row of a bulk import")
+public record ImportError(
+    @Schema(description = "1-based position of the row in the input", example = "42")
+    long row,
+
+    @Schema(description = "Field that caused the error", example = "amount")
+    String field,
+
+    @Schema(description = "Error message", example = "Amount must be greater than 0")
+    String message
+) {}
@@ -0,0 +1,38 @@
+package com.example.carins.web.dto;
+
+import com.example.carins.service.ImportReport;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk import")
+public record ImportResult(
+    @Schema(description = "Rows read from the input", example = "100000")
+    long received,
+
+    @Schema(description = "Rows written", example = "99990")
+    long imported,
+
+    @Schema(description = "Rows rejected", example = "10")
+    long rejected,
+
+    @Schema(description = "Wall-clock duration of the import in milliseconds", example = "2500")
+    long durationMs,
+
+    @Schema(description = "Imported rows per second", example = "39996.0")
+    double rowsPerSecond,
+
+    @Schema(description = "Rejected rows; capped, see errorsTruncated")
+    List<ImportError> errors,
+
+    @Schema(description = "Whether more rows were rejected than listed in errors", example = "false")
+    boolean errorsTruncated
+) {
+    public static ImportResult of(ImportReport report) {
+        List<ImportError> errors = report.errors().stream()
+                .map(error -> new ImportError(error.row(), error.field(), error.message()))
+                .toList();
+        return new ImportResult(report.received(), report.imported(), report.rejected(), report.durationMs(),
+                report.rowsPerSecond(), errors, report.errorsTruncated());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request body for a batch insurance validity check")
+public record InsuranceValidityBatchRequest(
+    @Schema(description = "Pairs to check, answered in the same order")
+    @NotEmpty(message = "At least one check is required")
+    @Size(max = 10000, message = "At most 10000 checks per request")
+    List<InsuranceValidityCheck> checks
+) {}
@@ -0,0 +1,12 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Single (car, date) pair of a batch insurance validity check")
+public record InsuranceValidityCheck(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "Date to check (YYYY-MM-DD)", example = "2025-09-10")
+    String date
+) {}
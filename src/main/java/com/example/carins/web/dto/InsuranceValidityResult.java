@@ -0,0 +1,28 @@
+package com.example.carins.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of one check in a batch insurance validity check")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record InsuranceValidityResult(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "Date checked", example = "2025-09-10")
+    String date,
+
+    @Schema(description = "Whether insurance is valid; absent when the check failed", example = "true")
+    Boolean valid,
+
+    @Schema(description = "Why the check failed; absent on success", example = "Car not found")
+    String error
+) {
+    public static InsuranceValidityResult valid(Long carId, String date, boolean valid) {
+        return new InsuranceValidityResult(carId, date, valid, null);
+    }
+
+    public static InsuranceValidityResult error(Long carId, String date, String error) {
+        return new InsuranceValidityResult(carId, date, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.YearMonth;
+
+@Schema(description = "Claim totals of one car in one calendar month")
+public record MonthlyClaimsDto(
+    @Schema(description = "Month", example = "2025-09", type = "string")
+    YearMonth month,
+
+    @Schema(description = "Number of claims", example = "2")
+    long claimCount,
+
+    @Schema(description = "Sum of claim amounts", example = "3000")
+    long totalAmount
+) {}
@@ -0,0 +1,33 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Cars of an owner with their active policies and claim totals")
+public record OwnerPortfolioDto(
+    @Schema(description = "Owner ID", example = "1")
+    Long ownerId,
+
+    @Schema(description = "Owner name", example = "Ana Pop")
+    String name,
+
+    @Schema(description = "Owner email", example = "ana.pop@example.com")
+    String email,
+
+    @Schema(description = "Date the active policies were taken on", example = "2025-06-01")
+    LocalDate date,
+
+    @Schema(description = "Cars without an active policy on the date", example = "0")
+    int uninsuredCars,
+
+    @Schema(description = "Number of claims over all cars", example = "3")
+    long claimCount,
+
+    @Schema(description = "Sum of all claim amounts over all cars", example = "4500")
+    long claimTotal,
+
+    @Schema(description = "Cars ordered by id")
+    List<PortfolioCarDto> cars
+) {}
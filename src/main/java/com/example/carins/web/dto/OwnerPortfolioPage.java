@@ -0,0 +1,14 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Page of owner portfolios ordered by owner id")
+public record OwnerPortfolioPage(
+    @Schema(description = "Portfolios of this page")
+    List<OwnerPortfolioDto> items,
+
+    @Schema(description = "Value for the 'after' parameter of the next page; absent on the last page", example = "50")
+    Long nextCursor
+) {}
@@ -0,0 +1,38 @@
+package com.example.carins.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Car of an owner's portfolio with its active policies and claim totals")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PortfolioCarDto(
+    @Schema(description = "Car ID", example = "1")
+    Long carId,
+
+    @Schema(description = "Vehicle identification number", example = "VIN12345")
+    String vin,
+
+    @Schema(description = "Make", example = "Dacia")
+    String make,
+
+    @Schema(description = "Model", example = "Logan")
+    String model,
+
+    @Schema(description = "Year of manufacture", example = "2018")
+    int year,
+
+    @Schema(description = "Policies active on the portfolio date")
+    List<InsurancePolicyDto> activePolicies,
+
+    @Schema(description = "Number of claims", example = "3")
+    long claimCount,
+
+    @Schema(description = "Sum of all claim amounts", example = "4500")
+    long claimTotal,
+
+    @Schema(description = "Date of the latest claim; absent when the car has no claims", example = "2025-09-09")
+    LocalDate lastClaimDate
+) {}
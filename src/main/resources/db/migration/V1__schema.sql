@@ -0,0 +1,110 @@
+-- Schema as mapped by the entities in com.example.carins.model; hibernate validates against it on startup.
+-- Foreign keys are added last. H2 backs each one with a single-column index of its own, since it only reuses
+-- an existing index whose columns match the key exactly.
+
+create sequence claim_seq start with 1 increment by 50;
+create sequence history_seq start with 1 increment by 50;
+create sequence history_outbox_seq start with 1 increment by 50;
+
+create table owner (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    email varchar(255),
+    primary key (id)
+);
+
+create table car (
+    id bigint generated by default as identity,
+    vin varchar(32) not null,
+    make varchar(255),
+    model varchar(255),
+    year_of_manufacture integer not null,
+    owner_id bigint not null,
+    primary key (id),
+    constraint uk_car_vin unique (vin)
+);
+
+create table insurancepolicy (
+    id bigint generated by default as identity,
+    car_id bigint not null,
+    provider varchar(255),
+    start_date date,
+    end_date date not null,
+    primary key (id)
+);
+
+create table claim (
+    id bigint not null,
+    car_id bigint not null,
+    claim_date date not null,
+    description varchar(500) not null,
+    amount integer not null check (amount >= 1),
+    primary key (id)
+);
+
+create table history (
+    id bigint not null,
+    car_id bigint not null,
+    event varchar(500) not null,
+    date date not null,
+    primary key (id)
+);
+
+create table history_outbox (
+    id bigint not null,
+    car_id bigint not null,
+    event varchar(500) not null,
+    date date not null,
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table claim_summary (
+    car_id bigint not null,
+    claim_count bigint not null,
+    total_amount bigint not null,
+    last_claim_date date not null,
+    primary key (car_id)
+);
+
+create table claim_monthly_summary (
+    car_id bigint not null,
+    month_start date not null,
+    claim_count bigint not null,
+    total_amount bigint not null,
+    -- leads with car_id: the summary is read and merged per car
+    primary key (car_id, month_start)
+);
+
+create table job_watermark (
+    name varchar(64) not null,
+    cursor_date date not null,
+    cursor_id bigint not null,
+    primary key (name)
+);
+
+create index idx_claim_summary_total_amount on claim_summary (total_amount desc, car_id);
+create index idx_claim_summary_claim_count on claim_summary (claim_count desc, car_id);
+
+-- Composite indexes for the hot access paths. Each one leads with the equality column and carries the
+-- range/order columns after it, so the lookup, the filter and the sort are served by the index alone. The
+-- per-car claim and history listings read every column, so their indexes carry the rest of the row too: a
+-- covering index is what makes H2 prefer them over the single-column foreign key index.
+-- QueryPlanTest (src/test) fails if a query stops using its index.
+
+-- InsurancePolicyRepository.existsActiveOnDate, findIntervalsByCarId, findByCarId
+create index idx_insurancepolicy_car_dates on insurancepolicy (car_id, start_date, end_date);
+
+-- InsurancePolicyRepository.findByEndDate, findExpirationsOn, findExpirationsAfter (end_date, id keyset)
+create index idx_insurancepolicy_end_date on insurancepolicy (end_date, id, car_id);
+
+-- HistoryRepository.findByCarIdOrderByDateAsc, streamByCarId
+create index idx_history_car_date on history (car_id, date, id, event);
+
+-- ClaimRepository.findByCarId, streamByCarId
+create index idx_claim_car_date on claim (car_id, claim_date, id, description, amount);
+
+alter table car add constraint fk_car_owner foreign key (owner_id) references owner (id);
+alter table insurancepolicy add constraint fk_insurancepolicy_car foreign key (car_id) references car (id);
+alter table claim add constraint fk_claim_car foreign key (car_id) references car (id);
+alter table history add constraint fk_history_car foreign key (car_id) references car (id);
@@ -1,3 +1,5 @@
+-- Demo data, applied only while classpath:db/seed is in spring.flyway.locations.
+
 INSERT INTO owner (id, name, email) VALUES (1, 'Ana Pop', 'ana.pop@example.com');
 INSERT INTO owner (id, name, email) VALUES (2, 'Bogdan Ionescu', 'bogdan.ionescu@example.com');
 
@@ -7,3 +9,7 @@ INSERT INTO car (id, vin, make, model, year_of_manufacture, owner_id) VALUES (2,
 INSERT INTO insurancepolicy (id, car_id, provider, start_date, end_date) VALUES (1, 1, 'Allianz', DATE '2024-01-01', DATE '2024-12-31');
 INSERT INTO insurancepolicy (id, car_id, provider, start_date, end_date) VALUES (2, 1, 'Groupama', DATE '2025-01-01', DATEADD('YEAR', 1, DATE '2025-01-01'));
 INSERT INTO insurancepolicy (id, car_id, provider, start_date, end_date) VALUES (3, 2, 'Allianz', DATE '2025-03-01', DATE '2025-09-30');
+
+ALTER TABLE owner ALTER COLUMN id RESTART WITH 3;
+ALTER TABLE car ALTER COLUMN id RESTART WITH 3;
+ALTER TABLE insurancepolicy ALTER COLUMN id RESTART WITH 4;
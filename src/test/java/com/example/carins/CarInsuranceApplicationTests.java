@@ -1,16 +1,30 @@
 package com.example.carins;
 
+import com.example.carins.model.Claim;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.OwnerRepository;
 import com.example.carins.service.CarService;
+import com.example.carins.service.HistoryPipeline;
+import com.example.carins.service.InsurancePolicyService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -20,6 +34,15 @@ class CarInsuranceApplicationTests {
     @Autowired
     CarService service;
 
+    @Autowired
+    InsurancePolicyService policyService;
+
+    @Autowired
+    HistoryPipeline historyPipeline;
+
+    @Autowired
+    OwnerRepository ownerRepository;
+
     @Autowired
     MockMvc mockMvc;
 
@@ -30,6 +53,16 @@ class CarInsuranceApplicationTests {
         assertFalse(service.isInsuranceValid(2L, LocalDate.parse("2025-02-01")));
     }
 
+    @Test
+    void insuranceValidityFollowsPolicyWrites() {
+        LocalDate date = LocalDate.parse("2026-06-01");
+        assertFalse(service.isInsuranceValid(2L, date));
+
+        policyService.createInsurancePolicy(2L, "Generali", LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        assertTrue(service.isInsuranceValid(2L, date));
+    }
+
     @Test
     void testValidInsuranceCheck() throws Exception {
         mockMvc.perform(get("/api/cars/1/insurance-valid")
@@ -48,6 +81,205 @@ class CarInsuranceApplicationTests {
                 .andExpect(jsonPath("$.message").value("Car not found"));
     }
 
+    @Test
+    void testDomainErrorsAreMappedToErrorResponses() throws Exception {
+        mockMvc.perform(post("/api/insurance-policies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"carId\":999,\"provider\":\"Allianz\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-12-31\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Car not found"));
+
+        mockMvc.perform(put("/api/insurance-policies/999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"carId\":1,\"provider\":\"Allianz\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-12-31\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Insurance policy not found"));
+
+        mockMvc.perform(post("/api/insurance-policies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"carId\":1,\"provider\":\"Allianz\",\"startDate\":\"2025-01-01\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("endDate"));
+
+        mockMvc.perform(get("/api/cars/999/history/export").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.message").value("Car not found"));
+    }
+
+    @Test
+    void testGetCarFollowsOwnerWrites() throws Exception {
+        mockMvc.perform(get("/api/cars/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vin").value("VIN12345"))
+                .andExpect(jsonPath("$.ownerName").value("Ana Pop"));
+
+        Owner owner = ownerRepository.findById(1L).orElseThrow();
+        owner.setName("Ana Pop-Ionescu");
+        ownerRepository.save(owner);
+
+        mockMvc.perform(get("/api/cars/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ownerName").value("Ana Pop-Ionescu"));
+        mockMvc.perform(get("/api/cars/999"))
+                .andExpect(status().isNotFound());
+
+        owner.setName("Ana Pop");
+        ownerRepository.save(owner);
+    }
+
+    @Test
+    void testCarListIsTaggedWithTheFleetVersion() throws Exception {
+        String tag = mockMvc.perform(get("/api/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/cars").header("If-None-Match", tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", tag))
+                .andExpect(content().string(""));
+
+        ownerRepository.save(new Owner("Mara Stan", "mara.stan@example.com"));
+
+        mockMvc.perform(get("/api/cars").header("If-None-Match", tag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(tag)));
+    }
+
+    @Test
+    void testCarHistoryIsTaggedWithTheCarVersion() throws Exception {
+        String tag = mockMvc.perform(get("/api/cars/1/history"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/cars/1/history").header("If-None-Match", "\"other\", " + tag))
+                .andExpect(status().isNotModified());
+
+        service.registerClaim(1L, LocalDate.parse("2025-07-07"), "Cracked windscreen", 250);
+        assertTrue(historyPipeline.awaitDrained(Duration.ofSeconds(5)));
+
+        String newTag = mockMvc.perform(get("/api/cars/1/history").header("If-None-Match", tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.event == 'Cracked windscreen')]").exists())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(tag, newTag);
+        mockMvc.perform(get("/api/cars/1/history").header("If-None-Match", newTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/cars/1/history").header("If-None-Match", "*"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCarPagesFollowCursor() throws Exception {
+        mockMvc.perform(get("/api/cars/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].ownerName").value("Ana Pop"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        mockMvc.perform(get("/api/cars/page").param("after", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2));
+
+        mockMvc.perform(get("/api/cars/page").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamCars() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/cars/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].vin").value("VIN12345"))
+                .andExpect(jsonPath("$[1].vin").value("VIN67890"));
+    }
+
+    @Test
+    void testExportHistoryAndClaimsAsNdjson() throws Exception {
+        service.registerClaim(2L, LocalDate.parse("2025-04-10"), "Scratched rear bumper", 300);
+        Claim mirror = service.registerClaim(2L, LocalDate.parse("2025-04-20"), "Broken side mirror", 150);
+        assertTrue(historyPipeline.awaitDrained(Duration.ofSeconds(5)));
+
+        MvcResult history = mockMvc.perform(get("/api/cars/2/history/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String historyLines = mockMvc.perform(asyncDispatch(history))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        // other tests also write to car 2, so only the events of these two claims are looked at
+        List<String> events = linesContaining(historyLines, "Scratched rear bumper", "Broken side mirror");
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).matches("\\{\"id\":\\d+,\"carId\":2,\"event\":\"Scratched rear bumper\",\"date\":\"2025-04-10\"}"),
+                events.get(0));
+        assertTrue(events.get(1).matches("\\{\"id\":\\d+,\"carId\":2,\"event\":\"Broken side mirror\",\"date\":\"2025-04-20\"}"),
+                events.get(1));
+
+        MvcResult claims = mockMvc.perform(get("/api/claims/export")
+                .param("from", "2025-04-15")
+                .param("to", "2025-04-30"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String claimLines = mockMvc.perform(asyncDispatch(claims))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> exported = linesContaining(claimLines, "Scratched rear bumper", "Broken side mirror");
+        assertEquals(List.of("{\"id\":" + mirror.getId() + ",\"carId\":2,\"claimDate\":\"2025-04-20\","
+                + "\"description\":\"Broken side mirror\",\"amount\":150}"), exported);
+
+        mockMvc.perform(get("/api/cars/999/claims/export"))
+                .andExpect(status().isNotFound());
+        // the body is always NDJSON, so a client that only takes JSON is turned away
+        mockMvc.perform(get("/api/cars/2/claims/export").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotAcceptable());
+        mockMvc.perform(get("/api/history/export")
+                .param("from", "2025-05-01")
+                .param("to", "2025-04-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBatchInsuranceCheck() throws Exception {
+        mockMvc.perform(post("/api/insurance-valid/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"checks": [
+                        {"carId": 1, "date": "2025-06-01"},
+                        {"carId": 999, "date": "2025-06-01"},
+                        {"carId": 2, "date": "not-a-date"},
+                        {"carId": 2, "date": "2025-05-01"}
+                    ]}
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].carId").value(1))
+                .andExpect(jsonPath("$[0].valid").value(true))
+                .andExpect(jsonPath("$[1].error").value("Car not found"))
+                .andExpect(jsonPath("$[2].error").value("Invalid date format"))
+                .andExpect(jsonPath("$[3].valid").value(true));
+    }
+
+    @Test
+    void testUninsuredAndInsuredCars() throws Exception {
+        // car 2 has no policy before 2025-03-01; car 1 is covered from 2024-01-01 through 2026-01-01
+        mockMvc.perform(get("/api/coverage/uninsured").param("date", "2024-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.carIds[0]").value(2));
+        mockMvc.perform(get("/api/coverage/insured")
+                .param("from", "2024-01-01")
+                .param("to", "2025-12-31")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.carIds[0]").value(1));
+        mockMvc.perform(get("/api/coverage/uninsured")
+                .param("date", "2024-06-01")
+                .param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testInvalidDateFormat() throws Exception {
         mockMvc.perform(get("/api/cars/1/insurance-valid")
@@ -59,13 +291,19 @@ class CarInsuranceApplicationTests {
     @Test
     void testDateOutOfRange() throws Exception {
         mockMvc.perform(get("/api/cars/1/insurance-valid")
-                .param("date", "2022-01-01"))
+                .param("date", LocalDate.now().minusYears(3).toString()))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Date out of range"));
 
         mockMvc.perform(get("/api/cars/1/insurance-valid")
-                .param("date", "2028-01-01"))
+                .param("date", LocalDate.now().plusYears(3).toString()))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Date out of range"));
     }
+
+    private static List<String> linesContaining(String ndjson, String... texts) {
+        return Arrays.stream(ndjson.split("\n"))
+                .filter(line -> Arrays.stream(texts).anyMatch(line::contains))
+                .toList();
+    }
 }
@@ -1,44 +1,68 @@
 package com.example.carins;
 
-import com.example.carins.model.Car;
-import com.example.carins.model.InsurancePolicy;
-import com.example.carins.model.Owner;
+import com.example.carins.model.JobWatermark;
 import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.JobWatermarkRepository;
+import com.example.carins.repo.PolicyExpiration;
 import com.example.carins.service.PolicyExpirationScheduler;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 
-import java.lang.reflect.Field;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PolicyExpirationSchedulerTest {
 
+    private static final LocalDate TODAY = LocalDate.parse("2025-09-10");
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
     @Mock
     private InsurancePolicyRepository policyRepository;
 
+    @Mock
+    private JobWatermarkRepository watermarkRepository;
+
     private PolicyExpirationScheduler scheduler;
     private ListAppender<ILoggingEvent> logAppender;
     private Logger logger;
+    private JobWatermark storedWatermark;
 
     @BeforeEach
     void setUp() {
-        scheduler = new PolicyExpirationScheduler(policyRepository);
-        
+        Clock clock = Clock.fixed(TODAY.atTime(0, 5).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        scheduler = new PolicyExpirationScheduler(policyRepository, watermarkRepository, clock, new SimpleMeterRegistry(), 2, 1);
+
+        lenient().when(watermarkRepository.findById("policy-expiration"))
+            .thenAnswer(invocation -> Optional.ofNullable(storedWatermark));
+        lenient().when(watermarkRepository.save(any(JobWatermark.class)))
+            .thenAnswer(invocation -> {
+                JobWatermark watermark = invocation.getArgument(0);
+                storedWatermark = new JobWatermark(watermark.getName(), watermark.getCursorDate(), watermark.getCursorId());
+                return watermark;
+            });
+
         logger = (Logger) LoggerFactory.getLogger(PolicyExpirationScheduler.class);
         logAppender = new ListAppender<>();
         logAppender.start();
@@ -46,129 +70,78 @@ class PolicyExpirationSchedulerTest {
         logger.setLevel(Level.INFO);
     }
 
-    private void setId(Object entity, Long id) throws Exception {
-        Field idField = entity.getClass().getDeclaredField("id");
-        idField.setAccessible(true);
-        idField.set(entity, id);
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(logAppender);
     }
 
     @Test
     void checkExpiredPolicies_ShouldHandleNoPolicies() {
-        LocalDate today = LocalDate.now();
-        
-        when(policyRepository.findByEndDate(today))
+        when(policyRepository.findExpirationsAfter(any(), anyLong(), any(), any()))
             .thenReturn(Collections.emptyList());
-        
+
         scheduler.checkExpiredPolicies();
-        
-        verify(policyRepository).findByEndDate(today);
-        
+
+        verify(policyRepository).findExpirationsAfter(YESTERDAY.minusDays(1), JobWatermark.END_OF_DAY, YESTERDAY, Limit.of(2));
+
         List<ILoggingEvent> logEvents = logAppender.list;
         assertTrue(logEvents.isEmpty(), "No log messages should be written when no policies expire");
+        assertTrue(storedWatermark.covers(YESTERDAY), "Watermark should advance to the last expired day");
     }
 
     @Test
-    void checkExpiredPolicies_WithExpiredPolicies_ShouldLogCorrectMessages() throws Exception {
-        LocalDate today = LocalDate.now();
-        
-        Owner owner1 = new Owner("John Doe", "john@example.com");
-        setId(owner1, 1L);
-        Car car1 = new Car("VIN12345678901234567", "Toyota", "Camry", 2020, owner1);
-        setId(car1, 1L);
-        InsurancePolicy policy1 = new InsurancePolicy(car1, "Groupama", today.minusDays(30), today);
-        setId(policy1, 1L);
-        
-        Owner owner2 = new Owner("Jane Smith", "jane@example.com");
-        setId(owner2, 2L);
-        Car car2 = new Car("VIN98765432109876543", "Honda", "Civic", 2021, owner2);
-        setId(car2, 2L);
-        InsurancePolicy policy2 = new InsurancePolicy(car2, "Grawe", today.minusDays(60), today);
-        setId(policy2, 2L);
-        
-        when(policyRepository.findByEndDate(today))
-            .thenReturn(Arrays.asList(policy1, policy2));
-        
+    void checkExpiredPolicies_WithExpiredPolicies_ShouldLogCorrectMessages() {
+        when(policyRepository.findExpirationsAfter(any(), anyLong(), any(), any()))
+            .thenReturn(List.of(new PolicyExpiration(1L, 1L, YESTERDAY)))
+            .thenReturn(Collections.emptyList());
+
         scheduler.checkExpiredPolicies();
-        
-        verify(policyRepository).findByEndDate(today);
-        
+
         List<ILoggingEvent> logEvents = logAppender.list;
-        assertEquals(2, logEvents.size(), "Should log exactly 2 messages for 2 expired policies");
-        
+        assertEquals(1, logEvents.size(), "Should log exactly 1 message for 1 expired policy");
+
         ILoggingEvent firstLog = logEvents.get(0);
         assertEquals(Level.INFO, firstLog.getLevel());
         assertTrue(firstLog.getFormattedMessage().contains("Policy 1"));
         assertTrue(firstLog.getFormattedMessage().contains("car 1"));
-        assertTrue(firstLog.getFormattedMessage().contains("expired on " + today));
-        
-        ILoggingEvent secondLog = logEvents.get(1);
-        assertEquals(Level.INFO, secondLog.getLevel());
-        assertTrue(secondLog.getFormattedMessage().contains("Policy 2"));
-        assertTrue(secondLog.getFormattedMessage().contains("car 2"));
-        assertTrue(secondLog.getFormattedMessage().contains("expired on " + today));
+        assertTrue(firstLog.getFormattedMessage().contains("expired on " + YESTERDAY));
     }
 
     @Test
-    void checkExpiredPolicies_AntiSpamLogic_ShouldLogOnlyOnce() throws Exception {
-        LocalDate today = LocalDate.now();
-        
-        Owner owner = new Owner("John Doe", "john@example.com");
-        setId(owner, 1L);
-        Car car = new Car("VIN12345678901234567", "Toyota", "Camry", 2020, owner);
-        setId(car, 1L);
-        InsurancePolicy policy = new InsurancePolicy(car, "Groupama", today.minusDays(30), today);
-        setId(policy, 1L);
-        
-        when(policyRepository.findByEndDate(today))
-            .thenReturn(Arrays.asList(policy));
-        
+    void checkExpiredPolicies_AntiSpamLogic_ShouldLogOnlyOnce() {
+        when(policyRepository.findExpirationsAfter(any(), anyLong(), any(), any()))
+            .thenReturn(List.of(new PolicyExpiration(1L, 1L, YESTERDAY)));
+
         scheduler.checkExpiredPolicies();
         scheduler.checkExpiredPolicies();
-        
-        verify(policyRepository, times(2)).findByEndDate(today);
-        
+
+        verify(policyRepository, times(1)).findExpirationsAfter(any(), anyLong(), any(), any());
+
         List<ILoggingEvent> logEvents = logAppender.list;
-        assertEquals(1, logEvents.size(), "Should log only once due to anti-spam logic");
-        
-        ILoggingEvent logEvent = logEvents.get(0);
-        assertEquals(Level.INFO, logEvent.getLevel());
-        assertTrue(logEvent.getFormattedMessage().contains("Policy 1"));
-        assertTrue(logEvent.getFormattedMessage().contains("car 1"));
-        assertTrue(logEvent.getFormattedMessage().contains("expired on " + today));
+        assertEquals(1, logEvents.size(), "Should log only once because the watermark already covers yesterday");
+        assertTrue(logEvents.get(0).getFormattedMessage().contains("Policy 1"));
     }
 
     @Test
-    void checkExpiredPolicies_MixedNewAndOldPolicies_ShouldLogOnlyNewOnes() throws Exception {
-        LocalDate today = LocalDate.now();
-        
-        Owner owner1 = new Owner("John Doe", "john@example.com");
-        setId(owner1, 1L);
-        Car car1 = new Car("VIN12345678901234567", "Toyota", "Camry", 2020, owner1);
-        setId(car1, 1L);
-        InsurancePolicy policy1 = new InsurancePolicy(car1, "Groupama", today.minusDays(30), today);
-        setId(policy1, 1L);
-        
-        Owner owner2 = new Owner("Jane Smith", "jane@example.com");
-        setId(owner2, 2L);
-        Car car2 = new Car("VIN98765432109876543", "Honda", "Civic", 2021, owner2);
-        setId(car2, 2L);
-        InsurancePolicy policy2 = new InsurancePolicy(car2, "Grawe", today.minusDays(60), today);
-        setId(policy2, 2L);
-        
-        when(policyRepository.findByEndDate(today))
-            .thenReturn(Arrays.asList(policy1, policy2));
-        
-        scheduler.checkExpiredPolicies();
-        
-        when(policyRepository.findByEndDate(today))
-            .thenReturn(Arrays.asList(policy1, policy2));
-        
+    void checkExpiredPolicies_AfterDowntime_ShouldCatchUpFromPersistedWatermark() {
+        storedWatermark = new JobWatermark("policy-expiration", TODAY.minusDays(5), JobWatermark.END_OF_DAY);
+        when(policyRepository.findExpirationsAfter(any(), anyLong(), any(), any()))
+            .thenReturn(List.of(
+                new PolicyExpiration(3L, 2L, TODAY.minusDays(4)),
+                new PolicyExpiration(4L, 1L, TODAY.minusDays(2))))
+            .thenReturn(List.of(new PolicyExpiration(5L, 2L, YESTERDAY)));
+
         scheduler.checkExpiredPolicies();
-        
+
+        // second chunk resumes right after the last policy of the first one
+        verify(policyRepository).findExpirationsAfter(TODAY.minusDays(5), JobWatermark.END_OF_DAY, YESTERDAY, Limit.of(2));
+        verify(policyRepository).findExpirationsAfter(eq(TODAY.minusDays(2)), eq(4L), eq(YESTERDAY), eq(Limit.of(2)));
+
         List<ILoggingEvent> logEvents = logAppender.list;
-        assertEquals(2, logEvents.size(), "Should log only 2 messages total (from first call only)");
-        
-        assertTrue(logEvents.get(0).getFormattedMessage().contains("Policy 1"));
-        assertTrue(logEvents.get(1).getFormattedMessage().contains("Policy 2"));
+        assertEquals(3, logEvents.size());
+        assertTrue(logEvents.get(0).getFormattedMessage().contains("Policy 3"));
+        assertTrue(logEvents.get(1).getFormattedMessage().contains("Policy 4"));
+        assertTrue(logEvents.get(2).getFormattedMessage().contains("Policy 5"));
+        assertTrue(storedWatermark.covers(YESTERDAY));
     }
 }
@@ -0,0 +1,115 @@
+package com.example.carins.config;
+
+import com.example.carins.model.Car;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.service.CarService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between two in-memory H2 databases. The replica starts as a copy of the seed data with one car
+ * renamed, so a read shows where it was served from, and reports its lag from a table the test controls.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "carins.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL,
+        "carins.datasource.replicas.lag-query=select lag_ms from replica_status",
+        "carins.datasource.replicas.max-lag=5m",
+        "carins.datasource.replicas.lag-check-interval=1h"
+})
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    ReplicaRoutingDataSource routing;
+
+    @Autowired
+    JdbcTemplate primary;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(replica.getDataSource())
+                .locations("classpath:db/migration", "classpath:db/seed")
+                .load().migrate();
+        replica.update("update car set make = 'Replica' where id = 1");
+        replica.update("create table replica_status (lag_ms bigint)");
+        replica.update("insert into replica_status values (0)");
+    }
+
+    @Test
+    void readOnlyServiceMethodsUseTheReplica() {
+        setReplicaLag(0);
+
+        assertEquals("Replica", make(carService.listCars()));
+        // repository methods are read-only too, but did not opt in
+        assertEquals("Dacia", carRepository.findById(1L).orElseThrow().getMake());
+    }
+
+    @Test
+    void replicaBehindMaxLagIsNotUsed() {
+        setReplicaLag(10 * 60_000);
+
+        assertEquals("Dacia", make(carService.listCars()));
+    }
+
+    @Test
+    void carIsReadFromThePrimaryUntilTheReplicaHasItsClaim() {
+        setReplicaLag(60_000);
+        carService.registerClaim(2L, LocalDate.parse("2025-05-01"), "Scratched door", 300);
+
+        assertEquals(1, countClaims(2L));
+        assertEquals("Replica", make(carService.listCars()));
+
+        // a replica that caught up is used again, here without the claim since nothing replicates it
+        setReplicaLag(0);
+        assertEquals(0, countClaims(2L));
+    }
+
+    @Test
+    void carMissingFromTheReplicaIsLookedUpOnThePrimary() {
+        setReplicaLag(0);
+        primary.update("insert into car (id, vin, make, model, year_of_manufacture, owner_id) " +
+                "values (100, 'VINPRIMARY', 'Skoda', 'Octavia', 2024, 1)");
+
+        assertTrue(carService.getCarHistory(100L).isEmpty());
+    }
+
+    private void setReplicaLag(long millis) {
+        replica.update("update replica_status set lag_ms = ?", millis);
+        routing.refreshLag();
+    }
+
+    private int countClaims(Long carId) {
+        AtomicInteger count = new AtomicInteger();
+        carService.forEachClaim(carId, claim -> count.incrementAndGet());
+        return count.get();
+    }
+
+    private static String make(Iterable<Car> cars) {
+        for (Car car : cars) {
+            if (car.getId() == 1L) {
+                return car.getMake();
+            }
+        }
+        throw new AssertionError("car 1 missing");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.carins.reactive;
+
+import com.example.carins.web.dto.CarDto;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "carins.reactive.enabled=true",
+        "carins.reactive.port=0"
+})
+class ReactiveGatewayTest {
+
+    @Autowired
+    ReactiveGateway gateway;
+
+    WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + gateway.getPort()).build();
+    }
+
+    @Test
+    void listsCarsWithOwners() {
+        client.get().uri("/api/cars").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1)
+                .jsonPath("$[0].ownerName").isNotEmpty();
+
+        List<CarDto> cars = client.get().uri("/api/cars").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CarDto.class)
+                .getResponseBody()
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertEquals(List.of(1L, 2L), cars.stream().map(CarDto::id).toList());
+    }
+
+    @Test
+    void checksInsuranceValidityLikeTheServletApi() {
+        client.get().uri("/api/cars/1/insurance-valid?date=2025-06-01").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.carId").isEqualTo(1)
+                .jsonPath("$.date").isEqualTo("2025-06-01")
+                .jsonPath("$.valid").isEqualTo(true);
+
+        client.get().uri("/api/cars/999/insurance-valid?date=2025-06-01").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Car not found");
+
+        client.get().uri("/api/cars/1/insurance-valid?date=invalid-date").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("");
+
+        client.get().uri("/api/cars/1/insurance-valid?date=" + LocalDate.now().plusYears(3)).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Date out of range");
+    }
+
+    @Test
+    void returnsHistoryOrNotFound() {
+        client.get().uri("/api/cars/1/history").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$").isArray();
+
+        client.get().uri("/api/cars/999/history").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Car not found");
+    }
+
+    @Test
+    void runsQueriesOffTheCallingThread() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse("r2dbc:h2:mem:///carins").mutate()
+                .option(ConnectionFactoryOptions.USER, "sa")
+                .option(ConnectionFactoryOptions.PASSWORD, "")
+                .build();
+        ReactiveCarQueries queries = new ReactiveCarQueries(DatabaseClient.create(ConnectionFactories.get(options)));
+
+        // r2dbc-h2 runs the statement on whichever thread subscribes, which on the gateway is an event loop
+        String thread = queries.findAllCars()
+                .map(car -> Thread.currentThread().getName())
+                .blockFirst(Duration.ofSeconds(10));
+        assertTrue(thread.startsWith("boundedElastic"), thread);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.carins.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the hot queries through their repositories, captures the SQL Hibernate sends and checks with
+ * {@code EXPLAIN} that H2 answers it from the index created for it in {@code V1__schema.sql}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.carins.repo.SqlStatementRecorder"
+})
+class QueryPlanTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2025-06-01");
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    HistoryRepository historyRepository;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Autowired
+    ClaimMonthlySummaryRepository monthlySummaryRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        SqlStatementRecorder.start();
+    }
+
+    @Test
+    void existsActiveOnDateUsesCarDatesIndex() {
+        policyRepository.existsActiveOnDate(1L, DATE);
+        assertPlanUses("IDX_INSURANCEPOLICY_CAR_DATES", 1L, DATE, DATE);
+    }
+
+    @Test
+    void findByEndDateUsesEndDateIndex() {
+        policyRepository.findByEndDate(DATE);
+        assertPlanUses("IDX_INSURANCEPOLICY_END_DATE", DATE);
+    }
+
+    @Test
+    void findHistoryByCarUsesCarDateIndex() {
+        historyRepository.findByCarIdOrderByDateAsc(1L);
+        assertPlanUses("IDX_HISTORY_CAR_DATE", 1L);
+    }
+
+    @Test
+    void findClaimsByCarUsesCarDateIndex() {
+        claimRepository.findByCarId(1L);
+        assertPlanUses("IDX_CLAIM_CAR_DATE", 1L);
+    }
+
+    @Test
+    void findMonthlySummaryByCarUsesPrimaryKey() {
+        monthlySummaryRepository.findByCarIdOrderByMonthStartAsc(1L);
+        // H2 names primary key indexes itself; a key not led by car_id shows up as a scan of it
+        String plan = plan(1L);
+        assertTrue(Pattern.compile("PRIMARY_KEY_\\w+: CAR_ID = \\?1").matcher(plan).find(), plan);
+    }
+
+    @Test
+    void findIdsByVinInUsesVinIndex() {
+        carRepository.findIdsByVinIn(List.of("VIN12345"));
+        assertPlanUses("UK_CAR_VIN", "VIN12345");
+    }
+
+    private void assertPlanUses(String index, Object... args) {
+        String plan = plan(args);
+        assertTrue(plan.toUpperCase().contains(index), () -> "expected " + index + " in plan\n" + plan);
+    }
+
+    /** {@code EXPLAIN} of the one statement recorded, preceded by the statement itself. */
+    private String plan(Object... args) {
+        List<String> statements = SqlStatementRecorder.statements();
+        assertEquals(1, statements.size(), () -> "expected one statement: " + statements);
+        String sql = statements.get(0);
+        return sql + "\n" + jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.service.CarService;
+import com.example.carins.service.InsurancePolicyService;
+import com.example.carins.service.PolicyImportService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the statements Hibernate sends to show which reads are answered by the second-level and query
+ * caches, and that writes to policies invalidate the cached validity checks.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.carins.repo.SqlStatementRecorder"
+})
+@AutoConfigureMockMvc
+class SecondLevelCacheTest {
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    InsurancePolicyService policyService;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    PolicyImportService policyImportService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void carAndLazyOwnerAreReadOnceThenFromTheCache() {
+        Supplier<String> ownerName = () -> inTransaction(() -> carRepository.findById(1L).orElseThrow().getOwner().getName());
+
+        assertEquals("Ana Pop", ownerName.get());
+        assertEquals(2, SqlStatementRecorder.statements().size());
+
+        assertEquals("Ana Pop", ownerName.get());
+        assertEquals(0, SqlStatementRecorder.statements().size(), () -> "expected no statements: " + SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void findByVinIsReadOnceThenFromTheQueryCache() {
+        Supplier<Car> byVin = () -> inTransaction(() -> carRepository.findByVin("VIN67890").orElseThrow());
+
+        assertEquals(2L, byVin.get().getId());
+        assertEquals(1, SqlStatementRecorder.statements().size());
+
+        assertEquals(2L, byVin.get().getId());
+        assertEquals(0, SqlStatementRecorder.statements().size(), () -> "expected no statements: " + SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void readsThatMayUseAReplicaFillTheCacheWhenThereIsNone() {
+        carService.listCars();
+
+        assertTrue(entityManagerFactory.getCache().contains(Car.class, 1L));
+    }
+
+    @Test
+    void matchingHistoryTagIsAnsweredWithoutStatements() throws Exception {
+        // car 1 is never written here, so its tag is also the tag of any car that does not exist
+        String tag = mockMvc.perform(get("/api/cars/1/history"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        SqlStatementRecorder.start();
+        mockMvc.perform(get("/api/cars/1/history").header("If-None-Match", tag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, SqlStatementRecorder.statements().size(), () -> "expected no statements: " + SqlStatementRecorder.statements());
+
+        mockMvc.perform(get("/api/cars/99999/history").header("If-None-Match", tag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void policyWritesInvalidateCachedValidityChecks() {
+        LocalDate date = LocalDate.parse("2031-06-01");
+        Supplier<Boolean> active = () -> inTransaction(() -> policyRepository.existsActiveOnDate(2L, date));
+
+        assertFalse(active.get());
+        assertEquals(1, SqlStatementRecorder.statements().size());
+        assertFalse(active.get());
+        assertEquals(0, SqlStatementRecorder.statements().size());
+
+        InsurancePolicy policy = policyService.createInsurancePolicy(2L, "Allianz", LocalDate.parse("2031-01-01"), LocalDate.parse("2031-12-31"));
+        assertTrue(active.get());
+        assertEquals(1, SqlStatementRecorder.statements().size());
+        assertTrue(active.get());
+        assertEquals(0, SqlStatementRecorder.statements().size());
+
+        policyService.updateInsurancePolicy(policy.getId(), 2L, "Allianz", LocalDate.parse("2031-01-01"), LocalDate.parse("2031-03-31"));
+        assertFalse(active.get());
+        assertEquals(1, SqlStatementRecorder.statements().size());
+    }
+
+    @Test
+    void policyImportsInvalidateCachedValidityChecks() throws Exception {
+        LocalDate date = LocalDate.parse("2033-06-01");
+        Supplier<Boolean> active = () -> inTransaction(() -> policyRepository.existsActiveOnDate(2L, date));
+
+        assertFalse(active.get());
+        assertFalse(active.get());
+        assertEquals(0, SqlStatementRecorder.statements().size());
+
+        policyImportService.importCsv(new ByteArrayInputStream("""
+                vin,provider,startDate,endDate
+                VIN67890,Allianz,2033-01-01,2033-12-31
+                """.getBytes(StandardCharsets.UTF_8)));
+        assertTrue(active.get());
+        assertEquals(1, SqlStatementRecorder.statements().size());
+    }
+
+    /** Runs the read in a transaction of its own and records only its statements. */
+    private <T> T inTransaction(Supplier<T> read) {
+        SqlStatementRecorder.start();
+        return new TransactionTemplate(transactionManager).execute(status -> read.get());
+    }
+}
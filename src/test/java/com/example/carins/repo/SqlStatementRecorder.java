@@ -0,0 +1,35 @@
+package com.example.carins.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate sends from the thread that last called {@link #start}. Register it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static volatile Thread recordedThread;
+
+    /** Forgets what was recorded so far and records the current thread from now on. */
+    public static void start() {
+        statements.clear();
+        recordedThread = Thread.currentThread();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        // Scheduled jobs share the session factory; only the test's own statements are of interest.
+        if (Thread.currentThread() == recordedThread) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.carins.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final BoundedCache<Long, String> cache = new BoundedCache<>("test", 2, Duration.ofSeconds(10), registry, now::get);
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        assertEquals("car-1", cache.get(1L, id -> "car-" + id));
+        assertEquals("car-1", cache.get(1L, id -> fail("should be cached")));
+
+        assertEquals(1, count("carins.cache.gets", "result", "miss"));
+        assertEquals(1, count("carins.cache.gets", "result", "hit"));
+    }
+
+    @Test
+    void get_ShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        cache.get(1L, id -> "car-1");
+        cache.get(2L, id -> "car-2");
+        cache.get(1L, id -> "car-1"); // 2 is now the eldest
+        cache.get(3L, id -> "car-3");
+
+        assertEquals(2, cache.size());
+        assertEquals("car-1", cache.get(1L, id -> fail("should be cached")));
+        assertEquals("reloaded", cache.get(2L, id -> "reloaded"));
+        assertEquals(2, count("carins.cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void get_ShouldReloadExpiredEntries() {
+        cache.get(1L, id -> "old");
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals("new", cache.get(1L, id -> "new"));
+        assertEquals(1, count("carins.cache.evictions", "cause", "expired"));
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingValuesOrLoadsRacingAnInvalidation() {
+        assertNull(cache.get(1L, id -> null));
+        assertEquals(0, cache.size());
+
+        assertEquals("stale", cache.get(2L, id -> {
+            cache.invalidate(id);
+            return "stale";
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateIf_ShouldDropMatchingEntries() {
+        cache.get(1L, id -> "owner-a");
+        cache.get(2L, id -> "owner-b");
+
+        cache.invalidateIf(value -> value.equals("owner-a"));
+
+        assertEquals(1, cache.size());
+        assertEquals("owner-b", cache.get(2L, id -> fail("should be cached")));
+    }
+
+    private double count(String name, String tag, String value) {
+        return registry.get(name).tag(tag, value).counter().count();
+    }
+}
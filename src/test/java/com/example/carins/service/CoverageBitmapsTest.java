@@ -0,0 +1,95 @@
+package com.example.carins.service;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the bitmaps against {@link PolicyCoverageIndex#covers} for random fleets, across checkpoint
+ * boundaries and after coverage was replaced or dropped.
+ */
+class CoverageBitmapsTest {
+
+    private static final int FIRST_DAY = 20_000;
+    private static final int DAYS = 400;
+
+    @Test
+    void uninsuredOnAndInsuredThroughout_MatchTheCoverageOfEveryCar() {
+        Random random = new Random(42);
+        CoverageBitmaps bitmaps = new CoverageBitmaps(16);
+        Map<Long, int[]> fleet = new HashMap<>();
+        for (long car = 1; car <= 200; car++) {
+            int[] coverage = randomCoverage(random);
+            bitmaps.replace(car, null, coverage);
+            fleet.put(car, coverage);
+        }
+        bitmaps.markReady();
+        assertMatches(bitmaps, fleet, random);
+
+        for (long car = 1; car <= 200; car += 3) {
+            int[] coverage = randomCoverage(random);
+            bitmaps.replace(car, fleet.get(car), coverage);
+            fleet.put(car, coverage);
+        }
+        for (long car = 2; car <= 200; car += 7) {
+            bitmaps.replace(car, fleet.remove(car), null);
+        }
+        assertMatches(bitmaps, fleet, random);
+    }
+
+    @Test
+    void bitmaps_ShouldNotBeReadyUntilMarked() {
+        CoverageBitmaps bitmaps = new CoverageBitmaps(64);
+        bitmaps.replace(1L, null, new int[] {FIRST_DAY, FIRST_DAY + 10});
+        assertFalse(bitmaps.isReady());
+        bitmaps.markReady();
+        assertTrue(bitmaps.isReady());
+        assertEquals(RoaringBitmap.bitmapOf(1), bitmaps.uninsuredOn(FIRST_DAY - 1));
+        assertTrue(bitmaps.uninsuredOn(FIRST_DAY + 10).isEmpty());
+    }
+
+    private static void assertMatches(CoverageBitmaps bitmaps, Map<Long, int[]> fleet, Random random) {
+        for (int day = FIRST_DAY - 20; day < FIRST_DAY + DAYS + 20; day++) {
+            RoaringBitmap expected = new RoaringBitmap();
+            for (Map.Entry<Long, int[]> car : fleet.entrySet()) {
+                if (!PolicyCoverageIndex.covers(car.getValue(), day)) {
+                    expected.add(car.getKey().intValue());
+                }
+            }
+            assertEquals(expected, bitmaps.uninsuredOn(day), "uninsured on " + day);
+        }
+        for (int i = 0; i < 300; i++) {
+            int from = FIRST_DAY - 20 + random.nextInt(DAYS + 40);
+            int to = from + random.nextInt(120);
+            RoaringBitmap expected = new RoaringBitmap();
+            for (Map.Entry<Long, int[]> car : fleet.entrySet()) {
+                int[] coverage = car.getValue();
+                boolean throughout = true;
+                for (int day = from; day <= to && throughout; day++) {
+                    throughout = PolicyCoverageIndex.covers(coverage, day);
+                }
+                if (throughout) {
+                    expected.add(car.getKey().intValue());
+                }
+            }
+            assertEquals(expected, bitmaps.insuredThroughout(from, to), "insured from " + from + " to " + to);
+        }
+    }
+
+    /** Sorted intervals with gaps of at least one day between them, as the index merges them. */
+    private static int[] randomCoverage(Random random) {
+        int[] coverage = new int[2 * random.nextInt(5)];
+        int day = FIRST_DAY + random.nextInt(30);
+        for (int i = 0; i < coverage.length; i += 2) {
+            coverage[i] = day;
+            coverage[i + 1] = day + random.nextInt(120);
+            day = coverage[i + 1] + 2 + random.nextInt(60);
+        }
+        return coverage;
+    }
+}
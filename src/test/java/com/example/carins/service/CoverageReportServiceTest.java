@@ -0,0 +1,76 @@
+package com.example.carins.service;
+
+import com.example.carins.service.CoverageReportService.CarGaps;
+import com.example.carins.service.CoverageReportService.Span;
+import com.example.carins.service.CoverageReportService.Timeline;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the fleet gap report over a generated fleet, in batches small enough that the cursor spans several
+ * of them and each batch is split across fork-join workers, and checks it against the per-car timelines.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:coverage;DB_CLOSE_DELAY=-1",
+    "carins.generate.cars=500",
+    "carins.generate.policies-per-car=3",
+    "carins.generate.claims-per-car=0",
+    "carins.coverage.batch-size=300",
+    "carins.coverage.parallelism=4"
+})
+class CoverageReportServiceTest {
+
+    @Autowired
+    CoverageReportService coverageReportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void timeline_ShouldAlternateCoveredAndUncoveredSpans() {
+        Timeline timeline = coverageReportService.getTimeline(2L, LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31"));
+
+        assertEquals(List.of(
+                new Span(LocalDate.parse("2025-01-01"), LocalDate.parse("2025-02-28"), false),
+                new Span(LocalDate.parse("2025-03-01"), LocalDate.parse("2025-09-30"), true),
+                new Span(LocalDate.parse("2025-10-01"), LocalDate.parse("2025-12-31"), false)), timeline.spans());
+        assertEquals(214, timeline.coveredDays());
+        assertEquals(151, timeline.uncoveredDays());
+
+        // the 2024 and 2025 policies of car 1 touch, so they form one span
+        Timeline car1 = coverageReportService.getTimeline(1L, LocalDate.parse("2024-06-01"), LocalDate.parse("2025-06-01"));
+        assertEquals(1, car1.spans().size());
+        assertTrue(car1.spans().get(0).covered());
+
+        assertThrows(NotFoundException.class,
+                () -> coverageReportService.getTimeline(999_999L, LocalDate.parse("2025-01-01"), LocalDate.parse("2025-12-31")));
+    }
+
+    @Test
+    void fleetGaps_ShouldMatchTheTimelineOfEveryCar() {
+        LocalDate from = LocalDate.now().minusYears(2);
+        LocalDate to = LocalDate.now().plusYears(1);
+
+        List<CarGaps> report = new ArrayList<>();
+        coverageReportService.forEachCarWithGaps(from, to, report::add);
+
+        List<CarGaps> expected = new ArrayList<>();
+        for (Long carId : jdbcTemplate.queryForList("SELECT id FROM car ORDER BY id", Long.class)) {
+            Timeline timeline = coverageReportService.getTimeline(carId, from, to);
+            List<Span> gaps = timeline.spans().stream().filter(span -> !span.covered()).toList();
+            if (!gaps.isEmpty()) {
+                expected.add(new CarGaps(carId, timeline.uncoveredDays(), gaps));
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, report);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyExpiration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpirationWheelTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2025-09-10");
+
+    @Mock
+    private InsurancePolicyRepository policyRepository;
+
+    @Mock
+    private PolicyExpirationScheduler expirationScheduler;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private MutableClock clock;
+    private ExpirationWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(8, 0).toInstant(ZoneOffset.UTC));
+        wheel = new ExpirationWheel(policyRepository, expirationScheduler, clock, taskScheduler, 3);
+        lenient().when(policyRepository.findExpirationsOn(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    void start_ShouldCatchUpAndSeedTheHorizon() {
+        when(policyRepository.findExpirationsOn(TODAY)).thenReturn(List.of(new PolicyExpiration(1L, 1L, TODAY)));
+        when(policyRepository.findExpirationsOn(TODAY.plusDays(2))).thenReturn(List.of(new PolicyExpiration(2L, 2L, TODAY.plusDays(2))));
+
+        wheel.start();
+
+        verify(expirationScheduler).checkExpiredPolicies();
+        verify(policyRepository).findExpirationsOn(TODAY);
+        verify(policyRepository).findExpirationsOn(TODAY.plusDays(1));
+        verify(policyRepository).findExpirationsOn(TODAY.plusDays(2));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    void tick_ShouldFireEndedDayAndSeedTheDayEnteringTheHorizon() {
+        PolicyExpiration expiring = new PolicyExpiration(1L, 1L, TODAY);
+        when(policyRepository.findExpirationsOn(TODAY)).thenReturn(List.of(expiring));
+        wheel.start();
+
+        wheel.tick();
+        verify(expirationScheduler, never()).reportExpired(any(), any());
+
+        clock.set(TODAY.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        wheel.tick();
+
+        verify(expirationScheduler).reportExpired(eq(TODAY), argThat(due -> due.size() == 1 && due.contains(expiring)));
+        verify(policyRepository).findExpirationsOn(TODAY.plusDays(3));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void onPolicyChanged_ShouldMoveUpdatedPolicyBetweenSlots() {
+        when(policyRepository.findExpirationsOn(TODAY)).thenReturn(List.of(new PolicyExpiration(1L, 1L, TODAY)));
+        wheel.start();
+
+        // end date pushed beyond the horizon
+        when(policyRepository.findExpirationById(1L)).thenReturn(Optional.of(new PolicyExpiration(1L, 1L, TODAY.plusDays(30))));
+        wheel.onPolicyChanged(new PolicyChangedEvent(1L, 1L, TODAY));
+        assertEquals(0, wheel.size());
+
+        // new policy ending tomorrow
+        when(policyRepository.findExpirationById(5L)).thenReturn(Optional.of(new PolicyExpiration(5L, 2L, TODAY.plusDays(1))));
+        wheel.onPolicyChanged(new PolicyChangedEvent(2L, 5L, null));
+        assertEquals(1, wheel.size());
+
+        clock.set(TODAY.plusDays(2).atStartOfDay().toInstant(ZoneOffset.UTC));
+        wheel.tick();
+
+        verify(expirationScheduler).reportExpired(eq(TODAY), argThat(due -> due.isEmpty()));
+        verify(expirationScheduler).reportExpired(eq(TODAY.plusDays(1)), argThat(due -> due.size() == 1));
+    }
+
+    @Test
+    void onPolicyChanged_ShouldReportPolicyBackdatedBeforeTheFirstSlot() {
+        when(policyRepository.findExpirationsOn(TODAY)).thenReturn(List.of(new PolicyExpiration(1L, 1L, TODAY)));
+        wheel.start();
+
+        PolicyExpiration backdated = new PolicyExpiration(1L, 1L, TODAY.minusDays(5));
+        when(policyRepository.findExpirationById(1L)).thenReturn(Optional.of(backdated));
+        wheel.onPolicyChanged(new PolicyChangedEvent(1L, 1L, TODAY));
+        assertEquals(0, wheel.size());
+        verify(expirationScheduler).reportBackdated(backdated);
+
+        // a later write to the same expired policy leaves it alone
+        wheel.onPolicyChanged(new PolicyChangedEvent(1L, 1L, TODAY.minusDays(5)));
+        verify(expirationScheduler, times(1)).reportBackdated(any());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
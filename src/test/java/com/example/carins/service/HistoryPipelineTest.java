@@ -0,0 +1,59 @@
+package com.example.carins.service;
+
+import com.example.carins.model.HistoryOutbox;
+import com.example.carins.repo.HistoryOutboxRepository;
+import com.example.carins.repo.HistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "carins.history.sweep-interval=100ms",
+    "carins.history.sweep-grace=0s"
+})
+class HistoryPipelineTest {
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    HistoryPipeline historyPipeline;
+
+    @Autowired
+    HistoryRepository historyRepository;
+
+    @Autowired
+    HistoryOutboxRepository outboxRepository;
+
+    @Test
+    void registerClaim_ShouldWriteHistoryAsynchronouslyAndDrainTheOutbox() throws Exception {
+        carService.registerClaim(1L, LocalDate.parse("2025-05-05"), "Rear-ended at traffic light", 700);
+
+        assertTrue(historyPipeline.awaitDrained(Duration.ofSeconds(5)));
+        assertTrue(historyRepository.findByCarIdOrderByDateAsc(1L).stream()
+                .anyMatch(h -> h.getEvent().equals("Rear-ended at traffic light")));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void sweep_ShouldRecoverEventsLeftInTheOutbox() throws Exception {
+        // Simulates a crash between commit and flush: the row exists but was never queued
+        outboxRepository.save(new HistoryOutbox(2L, "Recovered after restart", LocalDate.parse("2025-05-06"), Instant.now()));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (outboxRepository.count() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, outboxRepository.count());
+        assertEquals(1, historyRepository.findByCarIdOrderByDateAsc(2L).stream()
+                .filter(h -> h.getEvent().equals("Recovered after restart"))
+                .count());
+    }
+}
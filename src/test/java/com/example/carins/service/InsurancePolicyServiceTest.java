@@ -0,0 +1,64 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InsurancePolicyServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2025-09-10");
+
+    @Mock
+    private InsurancePolicyRepository policyRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HistoryPipeline historyPipeline;
+
+    @Mock
+    private Car car;
+
+    private InsurancePolicyService service;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atTime(23, 30).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        service = new InsurancePolicyService(policyRepository, carRepository, eventPublisher, historyPipeline, clock);
+        when(car.getId()).thenReturn(7L);
+    }
+
+    @Test
+    void policyWrites_ShouldDateTheirHistoryFromTheClock() {
+        when(carRepository.findById(7L)).thenReturn(Optional.of(car));
+        when(policyRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        InsurancePolicy policy = service.createInsurancePolicy(7L, "Allianz", LocalDate.parse("2026-01-01"), LocalDate.parse("2026-12-31"));
+
+        when(policyRepository.findById(3L)).thenReturn(Optional.of(policy));
+        service.updateInsurancePolicy(3L, null, "Groupama", LocalDate.parse("2026-01-01"), LocalDate.parse("2026-06-30"));
+
+        verify(historyPipeline, times(2)).record(eq(7L), anyString(), eq(TODAY));
+    }
+}
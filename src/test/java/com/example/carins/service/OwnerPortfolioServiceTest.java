@@ -0,0 +1,110 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.SqlStatementRecorder;
+import com.example.carins.service.OwnerPortfolioService.Portfolio;
+import com.example.carins.service.OwnerPortfolioService.PortfolioCar;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads portfolios of a generated fleet, where owners have dozens of cars, and counts the statements
+ * Hibernate sends for them.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:portfolio;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.carins.repo.SqlStatementRecorder",
+    "carins.generate.cars=300",
+    "carins.generate.owners=10",
+    "carins.generate.policies-per-car=3",
+    "carins.generate.claims-per-car=0"
+})
+class OwnerPortfolioServiceTest {
+
+    @Autowired
+    OwnerPortfolioService portfolioService;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // a cached owner would save a statement and make the count depend on test order
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void portfolio_ShouldTakeFourStatementsHoweverManyCars() {
+        Long ownerId = jdbcTemplate.queryForObject(
+                "SELECT owner_id FROM car GROUP BY owner_id ORDER BY COUNT(*) DESC LIMIT 1", Long.class);
+        int cars = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM car WHERE owner_id = ?", Integer.class, ownerId);
+        int activePolicies = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM insurancepolicy p JOIN car c ON c.id = p.car_id " +
+                "WHERE c.owner_id = ? AND p.start_date <= CURRENT_DATE AND p.end_date >= CURRENT_DATE", Integer.class, ownerId);
+        assertTrue(cars > 10);
+
+        SqlStatementRecorder.start();
+        Portfolio portfolio = portfolioService.getPortfolio(ownerId);
+
+        assertEquals(4, SqlStatementRecorder.statements().size(), () -> "statements: " + SqlStatementRecorder.statements());
+        assertEquals(cars, portfolio.cars().size());
+        assertEquals(activePolicies, portfolio.cars().stream().mapToInt(car -> car.activePolicies().size()).sum());
+        assertEquals(portfolio.cars().stream().filter(car -> car.activePolicies().isEmpty()).count(), portfolio.uninsuredCars());
+    }
+
+    @Test
+    void portfolioPages_ShouldTakeFourStatementsEach() {
+        int owners = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM owner", Integer.class);
+        int cars = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM car", Integer.class);
+
+        int ownersSeen = 0;
+        int carsSeen = 0;
+        Long after = null;
+        List<Portfolio> page;
+        do {
+            SqlStatementRecorder.start();
+            page = portfolioService.getPortfolios(after, 5);
+            assertEquals(page.isEmpty() ? 1 : 4, SqlStatementRecorder.statements().size(),
+                    () -> "statements: " + SqlStatementRecorder.statements());
+            ownersSeen += page.size();
+            carsSeen += page.stream().mapToInt(portfolio -> portfolio.cars().size()).sum();
+            after = page.isEmpty() ? after : page.get(page.size() - 1).ownerId();
+        } while (page.size() == 5);
+
+        assertEquals(owners, ownersSeen);
+        assertEquals(cars, carsSeen);
+    }
+
+    @Test
+    void portfolio_ShouldCarryClaimTotals() {
+        carService.registerClaim(1L, LocalDate.parse("2025-02-01"), "Scratched door", 300);
+        carService.registerClaim(1L, LocalDate.parse("2025-04-01"), "Dented bumper", 1200);
+
+        Portfolio portfolio = portfolioService.getPortfolio(1L);
+
+        assertEquals("Ana Pop", portfolio.name());
+        PortfolioCar car = portfolio.cars().get(0);
+        assertEquals(1L, car.carId());
+        assertEquals(2, car.claimCount());
+        assertEquals(1500, car.claimTotal());
+        assertEquals(LocalDate.parse("2025-04-01"), car.lastClaimDate());
+        assertEquals(2, portfolio.claimCount());
+        assertEquals(1500, portfolio.claimTotal());
+
+        assertThrows(NotFoundException.class, () -> portfolioService.getPortfolio(999_999L));
+    }
+}
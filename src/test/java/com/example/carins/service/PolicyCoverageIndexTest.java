@@ -0,0 +1,94 @@
+package com.example.carins.service;
+
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.PolicyInterval;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicyCoverageIndexTest {
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static PolicyInterval interval(String start, String end) {
+        return new PolicyInterval(1L, LocalDate.parse(start), end != null ? LocalDate.parse(end) : null);
+    }
+
+    @Test
+    void toCoverage_MergesOverlappingAndAdjacentIntervals() {
+        int[] coverage = PolicyCoverageIndex.toCoverage(List.of(
+            interval("2025-01-01", "2025-12-31"),
+            interval("2024-01-01", "2024-12-31"),
+            interval("2025-06-01", "2025-07-01"),
+            interval("2027-01-01", "2027-03-01")));
+
+        assertArrayEquals(new int[] {
+            day("2024-01-01"), day("2025-12-31"),
+            day("2027-01-01"), day("2027-03-01")
+        }, coverage);
+    }
+
+    @Test
+    void covers_ChecksBoundariesAndGaps() {
+        int[] coverage = PolicyCoverageIndex.toCoverage(List.of(
+            interval("2024-01-01", "2024-12-31"),
+            interval("2025-03-01", "2025-09-30")));
+
+        assertFalse(PolicyCoverageIndex.covers(coverage, day("2023-12-31")));
+        assertTrue(PolicyCoverageIndex.covers(coverage, day("2024-01-01")));
+        assertTrue(PolicyCoverageIndex.covers(coverage, day("2024-12-31")));
+        assertFalse(PolicyCoverageIndex.covers(coverage, day("2025-02-01")));
+        assertTrue(PolicyCoverageIndex.covers(coverage, day("2025-09-30")));
+        assertFalse(PolicyCoverageIndex.covers(coverage, day("2025-10-01")));
+    }
+
+    @Test
+    void toCoverage_IgnoresPoliciesWithoutStartDateAndKeepsOpenEnded() {
+        int[] coverage = PolicyCoverageIndex.toCoverage(List.of(
+            new PolicyInterval(1L, null, LocalDate.parse("2025-01-01")),
+            interval("2030-01-01", null)));
+
+        assertFalse(PolicyCoverageIndex.covers(coverage, day("2024-06-01")));
+        assertTrue(PolicyCoverageIndex.covers(coverage, day("2099-06-01")));
+        assertFalse(PolicyCoverageIndex.covers(PolicyCoverageIndex.NO_COVERAGE, day("2024-06-01")));
+    }
+
+    @Test
+    void refresh_KeepsTheLaterReadWhenAnEarlierOneFinishesLast() throws Exception {
+        InsurancePolicyRepository policyRepository = mock(InsurancePolicyRepository.class);
+        PolicyCoverageIndex index = new PolicyCoverageIndex(mock(CarRepository.class), policyRepository,
+                new CoverageBitmaps(64), mock(PlatformTransactionManager.class));
+        List<PolicyInterval> before = List.of(interval("2024-01-01", "2024-12-31"));
+        List<PolicyInterval> after = List.of(interval("2024-01-01", "2025-12-31"));
+        CountDownLatch staleReadStarted = new CountDownLatch(1);
+        CountDownLatch staleReadMayFinish = new CountDownLatch(1);
+        when(policyRepository.findIntervalsByCarId(1L))
+                .thenAnswer(invocation -> {
+                    staleReadStarted.countDown();
+                    assertTrue(staleReadMayFinish.await(5, TimeUnit.SECONDS));
+                    return before;
+                })
+                .thenReturn(after);
+
+        CompletableFuture<int[]> stale = CompletableFuture.supplyAsync(() -> index.refresh(1L));
+        assertTrue(staleReadStarted.await(5, TimeUnit.SECONDS));
+        index.refresh(1L);
+        staleReadMayFinish.countDown();
+
+        int[] expected = PolicyCoverageIndex.toCoverage(after);
+        assertArrayEquals(expected, stale.get(5, TimeUnit.SECONDS));
+        assertArrayEquals(expected, index.coverage(1L));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.carins.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:generator;DB_CLOSE_DELAY=-1",
+    "carins.generate.cars=500",
+    "carins.generate.policies-per-car=4",
+    "carins.generate.claims-per-car=2"
+})
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    InsurancePolicyService policyService;
+
+    @Test
+    void generatedFleet_ShouldBeLoadedConsistentlyAfterTheSeedData() {
+        assertEquals(502, count("SELECT COUNT(*) FROM car"));
+        assertTrue(count("SELECT COUNT(*) FROM insurancepolicy") >= 500 * 2);
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM claim c WHERE c.claim_date < CURRENT_DATE AND NOT EXISTS (
+                  SELECT 1 FROM history h WHERE h.car_id = c.car_id AND h.date = c.claim_date AND h.event = c.description)
+                """));
+        assertEquals(0, count("SELECT COUNT(*) FROM car c LEFT JOIN owner o ON o.id = c.owner_id WHERE o.id IS NULL"));
+        assertEquals(0, count("""
+                SELECT COUNT(*) FROM insurancepolicy a JOIN insurancepolicy b
+                  ON a.car_id = b.car_id AND a.id < b.id AND a.start_date <= b.end_date AND b.start_date <= a.end_date
+                """));
+        // rollups are built from the generated claims
+        assertEquals(count("SELECT COALESCE(SUM(amount), 0) FROM claim"), count("SELECT COALESCE(SUM(total_amount), 0) FROM claim_summary"));
+    }
+
+    @Test
+    void writesAfterGeneration_ShouldGetFreshIds() {
+        long carId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM car", Long.class);
+
+        // generated policies end at most a year from now
+        LocalDate start = LocalDate.now().plusYears(3);
+        assertNotNull(policyService.createInsurancePolicy(carId, "Allianz", start, start.plusYears(1)).getId());
+        assertNotNull(carService.registerClaim(carId, LocalDate.now(), "Scratched bumper", 300).getId());
+        assertTrue(carService.isInsuranceValid(carId, start));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.carins.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.parse("2025-09-10");
+
+    @Test
+    void parseEpochDayMatchesLocalDate() {
+        for (LocalDate date = LocalDate.parse("1999-12-01"); date.isBefore(LocalDate.parse("2030-03-01")); date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), ValidationService.parseEpochDay(date.toString()), date.toString());
+        }
+        assertEquals(LocalDate.parse("0000-01-01").toEpochDay(), ValidationService.parseEpochDay("0000-01-01"));
+        assertEquals(LocalDate.parse("9999-12-31").toEpochDay(), ValidationService.parseEpochDay("9999-12-31"));
+    }
+
+    @Test
+    void parseEpochDayRejectsMalformedAndImpossibleDates() {
+        for (String text : new String[] { "", "invalid-date", "2025-9-10", "2025-09-1", "2025/09/10", "+2025-09-10",
+                "2025-09-10T00:00", " 2025-09-1", "2025-13-01", "2025-00-10", "2025-09-00", "2025-09-31",
+                "2025-02-29", "1900-02-29", "2025-0a-10" }) {
+            assertEquals(ValidationService.INVALID, ValidationService.parseEpochDay(text), text);
+        }
+        assertNotEquals(ValidationService.INVALID, ValidationService.parseEpochDay("2024-02-29"));
+        assertNotEquals(ValidationService.INVALID, ValidationService.parseEpochDay("2000-02-29"));
+    }
+
+    @Test
+    void validateDateChecksTheTwoYearWindow() {
+        ValidationService service = new ValidationService(new MutableClock(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC)));
+
+        ValidatedDate today = service.validateDate("2025-09-10");
+        assertTrue(today.isValid());
+        assertEquals(TODAY.toEpochDay(), today.getEpochDay());
+        assertEquals("2025-09-10", today.toString());
+        assertSame(today, service.validateDate("2025-09-10"));
+
+        assertTrue(service.validateDate("2023-09-10").isValid());
+        assertTrue(service.validateDate("2027-09-10").isValid());
+        assertEquals(ValidatedDate.Status.OUT_OF_RANGE, service.validateDate("2023-09-09").getStatus());
+        assertEquals(ValidatedDate.Status.OUT_OF_RANGE, service.validateDate("2027-09-11").getStatus());
+        assertEquals(ValidatedDate.Status.INVALID_FORMAT, service.validateDate("2025-09-31").getStatus());
+        assertEquals(ValidatedDate.Status.MISSING, service.validateDate(null).getStatus());
+
+        ValidatedDate old = service.parseDate("2001-01-01");
+        assertTrue(old.isValid());
+        assertEquals(LocalDate.parse("2001-01-01"), old.toLocalDate());
+    }
+
+    @Test
+    void windowRollsOverAtMidnight() {
+        MutableClock clock = new MutableClock(TODAY.atTime(23, 59, 59).toInstant(ZoneOffset.UTC));
+        ValidationService service = new ValidationService(clock);
+        assertTrue(service.validateDate("2023-09-10").isValid());
+        assertEquals(ValidatedDate.Status.OUT_OF_RANGE, service.validateDate("2027-09-11").getStatus());
+
+        clock.set(TODAY.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+        assertEquals(ValidatedDate.Status.OUT_OF_RANGE, service.validateDate("2023-09-10").getStatus());
+        assertTrue(service.validateDate("2027-09-11").isValid());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
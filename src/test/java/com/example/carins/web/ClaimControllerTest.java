@@ -0,0 +1,128 @@
+package com.example.carins.web;
+
+import com.example.carins.model.Claim;
+import com.example.carins.repo.ClaimRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ClaimControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ClaimRepository claimRepository;
+
+    @Test
+    void importClaims_FromNdjson_ShouldImportValidRowsAndReportTheRest() throws Exception {
+        long before = claimRepository.count();
+
+        mockMvc.perform(post("/api/claims/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                    {"carId": 1, "claimDate": "2025-02-01", "description": "Hail damage on roof", "amount": 900}
+                    {"carId": 999, "claimDate": "2025-02-02", "description": "Unknown car claim", "amount": 100}
+                    {"carId": 2, "claimDate": "2025-02-03", "description": "Cracked windshield", "amount": 0}
+                    {"carId": 2, "claimDate": "not-a-date", "description": "Cracked windshield", "amount": 10}
+                    {"carId": 2, "claimDate": "2025-02-04", "description": "Cracked windshield", "amount": 250}
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].field").value("amount"))
+                .andExpect(jsonPath("$.errors[1].row").value(4))
+                .andExpect(jsonPath("$.errors[2].row").value(2))
+                .andExpect(jsonPath("$.errors[2].message").value("Car not found"));
+
+        assertEquals(before + 2, claimRepository.count());
+    }
+
+    @Test
+    void importClaims_FromJsonArray_ShouldImportAllRows() throws Exception {
+        mockMvc.perform(post("/api/claims/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"carId": 1, "claimDate": "2025-03-01", "description": "Door dent repair", "amount": 400},
+                     {"carId": 1, "claimDate": "2025-03-02", "description": "Tyre replacement", "amount": 200}]
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(0));
+    }
+
+    @Test
+    void importClaims_WithBrokenJson_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/claims/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"carId\": 1, "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void claimSummary_ShouldMatchClaimsAfterSingleAndBulkWrites() throws Exception {
+        mockMvc.perform(post("/api/claims/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                    {"carId": 2, "claimDate": "2024-11-03", "description": "Scratched bumper", "amount": 300}
+                    {"carId": 2, "claimDate": "2024-11-20", "description": "Broken side mirror", "amount": 150}
+                    """))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cars/2/claims")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"claimDate\": \"2024-12-01\", \"description\": \"Rear light replaced\", \"amount\": 80}"))
+                .andExpect(status().isCreated());
+
+        List<Claim> claims = claimRepository.findByCarId(2L);
+        long total = claims.stream().mapToLong(Claim::getAmount).sum();
+        LocalDate last = claims.stream().map(Claim::getClaimDate).max(LocalDate::compareTo).orElseThrow();
+
+        mockMvc.perform(get("/api/cars/2/claims/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.claimCount").value(claims.size()))
+                .andExpect(jsonPath("$.totalAmount").value(total))
+                .andExpect(jsonPath("$.lastClaimDate").value(last.toString()))
+                .andExpect(jsonPath("$.months[?(@.month == '2024-11')].claimCount").value(2))
+                .andExpect(jsonPath("$.months[?(@.month == '2024-11')].totalAmount").value(450));
+    }
+
+    @Test
+    void claimSummary_ForUnknownCar_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/cars/999/claims/summary"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void topCars_ShouldRankByAmountAndRejectUnknownRanking() throws Exception {
+        mockMvc.perform(post("/api/claims/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("""
+                    {"carId": 1, "claimDate": "2025-04-01", "description": "Engine damage", "amount": 1000000}
+                    """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/claims/top").param("by", "amount").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].carId").value(1))
+                .andExpect(jsonPath("$[0].months").doesNotExist());
+
+        mockMvc.perform(get("/api/claims/top").param("by", "severity"))
+                .andExpect(status().isBadRequest());
+    }
+}
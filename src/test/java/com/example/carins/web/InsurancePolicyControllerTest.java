@@ -0,0 +1,95 @@
+package com.example.carins.web;
+
+import com.example.carins.repo.InsurancePolicyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class InsurancePolicyControllerTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    InsurancePolicyRepository policyRepository;
+
+    @Test
+    void importPolicies_FromCsv_ShouldImportValidRowsAndReportTheRest() throws Exception {
+        LocalDate date = LocalDate.parse("2033-06-01");
+        assertFalse(policyRepository.existsActiveOnDate(1L, date));
+
+        mockMvc.perform(post("/api/insurance-policies/bulk")
+                .contentType(TEXT_CSV)
+                .content("""
+                    vin,provider,startDate,endDate
+                    VIN12345,Allianz,2033-01-01,2033-12-31
+                    VIN12345,Groupama,2033-06-01,2034-05-31
+                    VIN00000,Allianz,2033-01-01,2033-12-31
+                    VIN67890,Allianz,2025-06-01,2025-12-31
+                    VIN12345,Allianz,2034-01-01,
+                    VIN12345,Allianz,2034-02-01,2034-01-01
+                    VIN12345,Generali,2034-01-01,2034-12-31
+                    """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(7))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(5))
+                .andExpect(jsonPath("$.errors[0].row").value(5))
+                .andExpect(jsonPath("$.errors[0].field").value("endDate"))
+                .andExpect(jsonPath("$.errors[1].row").value(6))
+                .andExpect(jsonPath("$.errors[1].message").value("End date must not be before start date"))
+                .andExpect(jsonPath("$.errors[2].row").value(3))
+                .andExpect(jsonPath("$.errors[2].message").value("Car not found"))
+                .andExpect(jsonPath("$.errors[3].row").value(2))
+                .andExpect(jsonPath("$.errors[3].message").value("Overlaps row 1"))
+                .andExpect(jsonPath("$.errors[4].row").value(4))
+                .andExpect(jsonPath("$.errors[4].message").value("Overlaps existing coverage of the car from 2025-03-01 to 2025-09-30"));
+
+        // the cached answer from before the import is invalidated
+        assertTrue(policyRepository.existsActiveOnDate(1L, date));
+    }
+
+    @Test
+    void importPolicies_FromNdjson_ShouldRejectPoliciesImportedBefore() throws Exception {
+        String policy = """
+                {"vin": "VIN12345", "provider": "Allianz", "startDate": "2035-01-01", "endDate": "2035-12-31"}
+                """;
+
+        mockMvc.perform(post("/api/insurance-policies/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(policy))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(post("/api/insurance-policies/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(policy))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.errors[0].message").value("Overlaps existing coverage of the car from 2035-01-01 to 2035-12-31"));
+    }
+
+    @Test
+    void importPolicies_WithBrokenCsv_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/insurance-policies/bulk")
+                .contentType(TEXT_CSV)
+                .content("""
+                    vin,provider,startDate,endDate
+                    VIN12345,Allianz,2036-01-01,2036-12-31,extra
+                    """))
+                .andExpect(status().isBadRequest());
+    }
+}